@@ -0,0 +1,150 @@
+package org.example;
+
+import org.example.analysis.ReflectionAnalyzer;
+import org.example.cache.ClassSummaryCache;
+import org.example.graph.CallGraphMode;
+
+/**
+ * Tuning knobs for a single analysis run, shared by the CLI ({@link Main}) and the web layer.
+ */
+public class AnalysisOptions {
+
+    private int threads = 1;
+    private boolean lazyParsing;
+    private long maxDecompressedBytes;
+    private String cacheDir;
+    private long cacheMaxBytes = ClassSummaryCache.DEFAULT_MAX_BYTES;
+    private ReflectionAnalyzer.Mode reflectionMode = ReflectionAnalyzer.Mode.HEURISTIC;
+    private CallGraphMode callGraphMode = CallGraphMode.EXACT;
+    private boolean strictEntryPoints;
+    private boolean liveFields;
+    private String keepRulesFile;
+
+    // ── Parallelism ────────────────────────────────────────────────────────────
+
+    /**
+     * Number of worker threads used by the parallel phases. 1 keeps everything on the
+     * calling thread, 0 (or any value below 1) means one worker per available core.
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Returns the effective worker count, resolving 0 to the number of available cores.
+     */
+    public int getParallelism() {
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    // ── Parsing ────────────────────────────────────────────────────────────────
+
+    /**
+     * When enabled only class headers and method signatures are parsed up front; method
+     * bodies are decoded when reachability first reaches them.
+     */
+    public boolean isLazyParsing() {
+        return lazyParsing;
+    }
+
+    public void setLazyParsing(boolean lazyParsing) {
+        this.lazyParsing = lazyParsing;
+    }
+
+    /**
+     * Limit on the class files and metadata decompressed from an archive stream
+     * ({@link Main#analyzeClassStream}); 0 means no limit.
+     */
+    public long getMaxDecompressedBytes() {
+        return maxDecompressedBytes;
+    }
+
+    public void setMaxDecompressedBytes(long maxDecompressedBytes) {
+        this.maxDecompressedBytes = maxDecompressedBytes;
+    }
+
+    // ── Summary cache ──────────────────────────────────────────────────────────
+
+    /**
+     * Directory of the persistent per-class summary cache, or null to parse everything.
+     */
+    public String getCacheDir() {
+        return cacheDir;
+    }
+
+    public void setCacheDir(String cacheDir) {
+        this.cacheDir = cacheDir;
+    }
+
+    public long getCacheMaxBytes() {
+        return cacheMaxBytes;
+    }
+
+    public void setCacheMaxBytes(long cacheMaxBytes) {
+        this.cacheMaxBytes = cacheMaxBytes;
+    }
+
+    // ── Reflection ─────────────────────────────────────────────────────────────
+
+    /**
+     * How reflection calls are linked into the call graph; see {@link ReflectionAnalyzer.Mode}.
+     */
+    public ReflectionAnalyzer.Mode getReflectionMode() {
+        return reflectionMode;
+    }
+
+    public void setReflectionMode(ReflectionAnalyzer.Mode reflectionMode) {
+        this.reflectionMode = reflectionMode;
+    }
+
+    // ── Call graph ─────────────────────────────────────────────────────────────
+
+    public CallGraphMode getCallGraphMode() {
+        return callGraphMode;
+    }
+
+    public void setCallGraphMode(CallGraphMode callGraphMode) {
+        this.callGraphMode = callGraphMode;
+    }
+
+    /**
+     * When enabled, public static methods without callers are no longer entry points and test
+     * methods are recognized by annotation rather than by name. Meant for precise call graphs,
+     * where such methods really are unused.
+     */
+    public boolean isStrictEntryPoints() {
+        return strictEntryPoints;
+    }
+
+    public void setStrictEntryPoints(boolean strictEntryPoints) {
+        this.strictEntryPoints = strictEntryPoints;
+    }
+
+    /**
+     * File of ProGuard-style keep rules whose methods are additional entry points, or null;
+     * see {@link org.example.analysis.KeepRules}.
+     */
+    public String getKeepRulesFile() {
+        return keepRulesFile;
+    }
+
+    public void setKeepRulesFile(String keepRulesFile) {
+        this.keepRulesFile = keepRulesFile;
+    }
+
+    /**
+     * When enabled, only reachable methods make a field used; fields that only dead methods
+     * read are reported as dead (and listed separately).
+     */
+    public boolean isLiveFields() {
+        return liveFields;
+    }
+
+    public void setLiveFields(boolean liveFields) {
+        this.liveFields = liveFields;
+    }
+}
@@ -1,23 +1,31 @@
 package org.example;
 
+import org.example.analysis.AnnotationIndex;
 import org.example.analysis.DeadBlockAnalyzer;
 import org.example.analysis.DeadFieldAnalyzer;
 import org.example.analysis.DeadMethodAnalyzer;
+import org.example.analysis.KeepRules;
 import org.example.analysis.ReflectionAnalyzer;
-import org.example.bytecode.ClassScanner;
-import org.example.bytecode.MethodScanner;
+import org.example.bytecode.ClassFileScanner;
+import org.example.cache.ClassSummaryCache;
 import org.example.graph.CallGraph;
+import org.example.graph.CallGraphMode;
+import org.example.graph.ClassHierarchy;
 import org.example.graph.GraphNode;
+import org.example.model.ArchiveMetadata;
 import org.example.model.ClassInfo;
 import org.example.model.FieldInfo;
+import org.example.model.InstructionList;
 import org.example.model.MethodInfo;
 import org.example.report.ConsoleReporter;
 import org.example.report.Report;
 import org.example.util.ClassPathScanner;
+import org.objectweb.asm.Opcodes;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Paths;
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class Main {
 
@@ -28,6 +36,15 @@ public class Main {
         }
 
         String inputPath = args[0];
+        AnalysisOptions options;
+        try {
+            options = parseOptions(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            printUsage();
+            System.exit(1);
+            return;
+        }
 
         try {
             System.out.println("Java Dead Code & Reflection Analyzer");
@@ -44,33 +61,58 @@ public class Main {
                 return;
             }
 
-            System.out.printf("Found %,d class files%n%n", classBytesList.size());
+            System.out.printf("Found %,d class files%n", classBytesList.size());
+            ArchiveMetadata archiveMetadata = pathScanner.getArchiveMetadata();
+            if (!archiveMetadata.isEmpty()) {
+                System.out.printf("Archive metadata: %,d main classes, %,d service providers%n",
+                        archiveMetadata.getMainClasses().size(), archiveMetadata.getProviderClasses().size());
+            }
+            System.out.println();
+
+            // 2. Parse every class once (methods + fields, shared by all analyses)
+            ClassSummaryCache summaryCache = openSummaryCache(options);
+            List<ClassInfo> allClasses = parseClasses(classBytesList, options, summaryCache);
+            if (summaryCache != null) {
+                System.out.printf("Summary cache: %,d hits, %,d misses (%,d KB on disk)%n",
+                        summaryCache.getHits(), summaryCache.getMisses(), summaryCache.getTotalBytes() / 1024);
+            }
+            if (options.isLazyParsing()) {
+                System.out.println("Lazy parsing: method bodies are decoded when first reached");
+            }
 
-            // 2. Build initial call graph (static calls)
-            CallGraph callGraph = buildCallGraph(classBytesList);
+            // 3. Build initial call graph (static calls)
+            ClassHierarchy hierarchy = buildClassHierarchy(allClasses, options);
+            CallGraph callGraph = buildCallGraph(allClasses, hierarchy, options);
             System.out.printf("Initial call graph: %,d methods%n%n", callGraph.getAllNodes().size());
 
-            // 3. Extract all classes info (needed for both method and field analysis)
-            List<ClassInfo> allClasses = extractAllClassesWithFields(classBytesList);
-
             // 4. Reflection analysis & call graph enhancement
             System.out.println("=== Reflection Analysis ===");
-            ReflectionAnalyzer reflectionAnalyzer = new ReflectionAnalyzer();
+            ReflectionAnalyzer reflectionAnalyzer = new ReflectionAnalyzer(options.getReflectionMode());
 
             List<MethodInfo> allMethods = extractAllMethods(callGraph);
-            reflectionAnalyzer.analyzeReflection(allMethods, callGraph);
+            if (options.isLazyParsing()) {
+                System.out.println("Deferred: reflection calls are linked as methods are reached.");
+                System.out.println();
+            } else {
+                reflectionAnalyzer.analyzeReflection(allMethods, callGraph);
 
-            printReflectionSummary(reflectionAnalyzer.getReflectionSummary(allMethods));
+                printReflectionSummary(reflectionAnalyzer.getReflectionSummary(allMethods));
 
-            System.out.printf("%nCall graph after reflection enhancement: %,d methods%n%n",
-                    callGraph.getAllNodes().size());
+                System.out.printf("%nCall graph after reflection enhancement: %,d methods%n%n",
+                        callGraph.getAllNodes().size());
+            }
 
             // 5. Dead method analysis + immediate reporting
             System.out.println("=== Dead Method Analysis ===");
-            DeadMethodAnalyzer deadMethodAnalyzer = new DeadMethodAnalyzer();
+            DeadMethodAnalyzer deadMethodAnalyzer = new DeadMethodAnalyzer(options.getParallelism(), options.isStrictEntryPoints());
+            deadMethodAnalyzer.setKeepRules(loadKeepRules(allClasses, options));
+            deadMethodAnalyzer.setAnnotationIndex(new AnnotationIndex(allClasses));
+            deadMethodAnalyzer.setArchiveMetadata(archiveMetadata);
+            DeadFieldAnalyzer deadFieldAnalyzer = createDeadFieldAnalyzer(deadMethodAnalyzer, allClasses, options);
 
             // Pass both callGraph and allClasses as required
-            List<MethodInfo> deadMethods = deadMethodAnalyzer.findDeadMethods(callGraph, allClasses);
+            List<MethodInfo> deadMethods = findDeadMethods(
+                    deadMethodAnalyzer, callGraph, allClasses, allMethods, reflectionAnalyzer, hierarchy, options);
 
             // Print dead methods results right after detection
             deadMethodAnalyzer.printDeadMethods(deadMethods);
@@ -82,17 +124,18 @@ public class Main {
 
             // 6. Dead field analysis
             System.out.println("\n=== Field Analysis ===");
-            DeadFieldAnalyzer deadFieldAnalyzer = new DeadFieldAnalyzer();
-
-            List<FieldInfo> deadFields = deadFieldAnalyzer.findDeadFields(allClasses);
+            List<FieldInfo> deadFields = findDeadFields(deadFieldAnalyzer, allClasses, deadMethods, options);
 
             deadFieldAnalyzer.printFieldAnalysisReport(allClasses);
             printDeadFieldsReport(deadFields, deadFieldAnalyzer);
+            if (options.isLiveFields()) {
+                printFieldsKeptAliveByDeadCode(deadFieldAnalyzer.getFieldsKeptAliveByDeadCode());
+            }
 
             // 7. Dead code block analysis (only in live methods)
             System.out.println("\n=== Dead Code Block Analysis ===");
-            DeadBlockAnalyzer deadBlockAnalyzer = new DeadBlockAnalyzer();
-            List<MethodInfo> liveMethods = getLiveMethods(callGraph.getAllNodes(), deadMethods);
+            DeadBlockAnalyzer deadBlockAnalyzer = new DeadBlockAnalyzer(options.getParallelism());
+            List<MethodInfo> liveMethods = getLiveMethods(callGraph.getAllNodes(), deadMethods, options);
 
             Map<String, Map<String, Set<Integer>>> deadBlocksByClass =
                     deadBlockAnalyzer.findDeadBlocksInMethods(liveMethods);
@@ -139,38 +182,94 @@ public class Main {
      * @throws IOException if class file reading fails
      */
     public static Report analyzeAndGetReport(String inputPath) throws IOException {
-        Report report = new Report();
+        return analyzeAndGetReport(inputPath, new AnalysisOptions());
+    }
 
+    /**
+     * Same as {@link #analyzeAndGetReport(String)} but with explicit tuning options.
+     */
+    public static Report analyzeAndGetReport(String inputPath, AnalysisOptions options) throws IOException {
         ClassPathScanner pathScanner = new ClassPathScanner();
         List<byte[]> classBytesList = pathScanner.scanClassFiles(inputPath);
+        return analyzeClassBytes(classBytesList, pathScanner.getArchiveMetadata(), options);
+    }
 
+    /**
+     * Analyzes class files that are already in memory, e.g. compiled in memory or read with
+     * {@link ClassPathScanner#scanClassFiles(InputStream, String)}.
+     */
+    public static Report analyzeClassBytes(List<byte[]> classBytesList, AnalysisOptions options) throws IOException {
+        return analyzeClassBytes(classBytesList, null, options);
+    }
+
+    /**
+     * @param archiveMetadata main classes and service providers of the scanned archives
+     *                        ({@link ClassPathScanner#getArchiveMetadata()}), or null
+     */
+    public static Report analyzeClassBytes(List<byte[]> classBytesList, ArchiveMetadata archiveMetadata,
+                                           AnalysisOptions options) throws IOException {
         if (classBytesList.isEmpty()) {
+            return analyzeClasses(Collections.emptyList(), archiveMetadata, options);
+        }
+
+        // Parse every class once (methods + fields)
+        List<ClassInfo> allClasses = parseClasses(classBytesList, options, openSummaryCache(options));
+        return analyzeClasses(allClasses, archiveMetadata, options);
+    }
+
+    /**
+     * Analyzes a .class file or archive read from {@code inputStream} (e.g. an upload), with
+     * {@code fileName} selecting the format. Each class is parsed as soon as it is
+     * decompressed, so the raw bytes of the whole archive are never held at once; reading
+     * stops with an IOException past {@link AnalysisOptions#getMaxDecompressedBytes()}.
+     */
+    public static Report analyzeClassStream(InputStream inputStream, String fileName,
+                                            AnalysisOptions options) throws IOException {
+        ClassPathScanner pathScanner = new ClassPathScanner();
+        pathScanner.setMaxDecompressedBytes(options.getMaxDecompressedBytes());
+        ClassFileScanner scanner = createClassFileScanner(options, openSummaryCache(options));
+
+        List<ClassInfo> allClasses = new ArrayList<>();
+        pathScanner.scanClassFiles(inputStream, fileName, bytes ->
+                allClasses.add(options.isLazyParsing() ? scanner.scanHeaders(bytes) : scanner.scan(bytes)));
+        return analyzeClasses(allClasses, pathScanner.getArchiveMetadata(), options);
+    }
+
+    private static Report analyzeClasses(List<ClassInfo> allClasses, ArchiveMetadata archiveMetadata,
+                                         AnalysisOptions options) throws IOException {
+        Report report = new Report();
+
+        if (allClasses.isEmpty()) {
             report.setTotalMethodsAnalyzed(0);
             return report;
         }
 
         // Build call graph from static calls
-        CallGraph callGraph = buildCallGraph(classBytesList);
+        ClassHierarchy hierarchy = buildClassHierarchy(allClasses, options);
+        CallGraph callGraph = buildCallGraph(allClasses, hierarchy, options);
 
         // Reflection analysis & graph enhancement
-        ReflectionAnalyzer reflectionAnalyzer = new ReflectionAnalyzer();
+        ReflectionAnalyzer reflectionAnalyzer = new ReflectionAnalyzer(options.getReflectionMode());
         List<MethodInfo> allMethods = extractAllMethods(callGraph);
-        reflectionAnalyzer.analyzeReflection(allMethods, callGraph);
-
-        // Extract full class information (methods + fields)
-        List<ClassInfo> allClasses = extractAllClassesWithFields(classBytesList);
+        if (!options.isLazyParsing()) {
+            reflectionAnalyzer.analyzeReflection(allMethods, callGraph);
+        }
 
         // Dead method analysis
-        DeadMethodAnalyzer deadMethodAnalyzer = new DeadMethodAnalyzer();
-        List<MethodInfo> deadMethods = deadMethodAnalyzer.findDeadMethods(callGraph, allClasses);
+        DeadMethodAnalyzer deadMethodAnalyzer = new DeadMethodAnalyzer(options.getParallelism(), options.isStrictEntryPoints());
+        deadMethodAnalyzer.setKeepRules(loadKeepRules(allClasses, options));
+        deadMethodAnalyzer.setAnnotationIndex(new AnnotationIndex(allClasses));
+        deadMethodAnalyzer.setArchiveMetadata(archiveMetadata);
+        DeadFieldAnalyzer deadFieldAnalyzer = createDeadFieldAnalyzer(deadMethodAnalyzer, allClasses, options);
+        List<MethodInfo> deadMethods = findDeadMethods(
+                deadMethodAnalyzer, callGraph, allClasses, allMethods, reflectionAnalyzer, hierarchy, options);
 
         // Dead field analysis
-        DeadFieldAnalyzer deadFieldAnalyzer = new DeadFieldAnalyzer();
-        List<FieldInfo> deadFields = deadFieldAnalyzer.findDeadFields(allClasses);
+        List<FieldInfo> deadFields = findDeadFields(deadFieldAnalyzer, allClasses, deadMethods, options);
 
         // Dead block analysis (only in live methods)
-        DeadBlockAnalyzer deadBlockAnalyzer = new DeadBlockAnalyzer();
-        List<MethodInfo> liveMethods = getLiveMethods(callGraph.getAllNodes(), deadMethods);
+        DeadBlockAnalyzer deadBlockAnalyzer = new DeadBlockAnalyzer(options.getParallelism());
+        List<MethodInfo> liveMethods = getLiveMethods(callGraph.getAllNodes(), deadMethods, options);
         Map<String, Map<String, Set<Integer>>> deadBlocksByClass =
                 deadBlockAnalyzer.findDeadBlocksInMethods(liveMethods);
 
@@ -203,30 +302,178 @@ public class Main {
 
     // ── Helper Methods ─────────────────────────────────────────────────────────
 
-    private static CallGraph buildCallGraph(List<byte[]> classBytesList) {
-        CallGraph callGraph = new CallGraph();
-        Map<String, List<MethodInfo>> classToMethods = new HashMap<>();
+    private static AnalysisOptions parseOptions(String[] args) {
+        AnalysisOptions options = new AnalysisOptions();
+
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            if ("--threads".equals(arg)) {
+                options.setThreads(parseIntOption(arg, nextArg(args, ++i, arg)));
+            } else if ("--lazy".equals(arg)) {
+                options.setLazyParsing(true);
+            } else if ("--cache-dir".equals(arg)) {
+                options.setCacheDir(nextArg(args, ++i, arg));
+            } else if ("--cache-size".equals(arg)) {
+                options.setCacheMaxBytes(parseIntOption(arg, nextArg(args, ++i, arg)) * 1024L * 1024L);
+            } else if ("--reflection-mode".equals(arg)) {
+                options.setReflectionMode(parseReflectionMode(nextArg(args, ++i, arg)));
+            } else if ("--call-graph".equals(arg)) {
+                options.setCallGraphMode(parseCallGraphMode(nextArg(args, ++i, arg)));
+            } else if ("--strict-entry-points".equals(arg)) {
+                options.setStrictEntryPoints(true);
+            } else if ("--live-fields".equals(arg)) {
+                options.setLiveFields(true);
+            } else if ("--keep-rules".equals(arg)) {
+                options.setKeepRulesFile(nextArg(args, ++i, arg));
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
 
-        for (byte[] bytes : classBytesList) {
-            ClassScanner classScanner = new ClassScanner();
-            ClassInfo classInfo = classScanner.scanClass(bytes);
+        return options;
+    }
 
-            MethodScanner methodScanner = new MethodScanner();
-            List<MethodInfo> methods = methodScanner.scanMethods(bytes, classInfo.getClassName());
+    private static String nextArg(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + option);
+        }
+        return args[index];
+    }
 
-            classToMethods.put(classInfo.getClassName(), methods);
+    private static int parseIntOption(String option, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for " + option + ": " + value);
+        }
+    }
+
+    private static ReflectionAnalyzer.Mode parseReflectionMode(String value) {
+        try {
+            return ReflectionAnalyzer.Mode.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid value for --reflection-mode: " + value
+                    + " (expected heuristic or dataflow)");
+        }
+    }
 
-            for (MethodInfo method : methods) {
+    private static CallGraphMode parseCallGraphMode(String value) {
+        try {
+            return CallGraphMode.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid value for --call-graph: " + value
+                    + " (expected exact, cha or rta)");
+        }
+    }
+
+    private static ClassSummaryCache openSummaryCache(AnalysisOptions options) throws IOException {
+        if (options.getCacheDir() == null || options.getCacheDir().isBlank()) {
+            return null;
+        }
+        return ClassSummaryCache.open(Paths.get(options.getCacheDir()), options.getCacheMaxBytes());
+    }
+
+    private static List<ClassInfo> parseClasses(List<byte[]> classBytesList, AnalysisOptions options,
+                                                ClassSummaryCache summaryCache) {
+        ClassFileScanner scanner = createClassFileScanner(options, summaryCache);
+        return scanner.scanAll(classBytesList, options.getParallelism(), options.isLazyParsing());
+    }
+
+    private static ClassFileScanner createClassFileScanner(AnalysisOptions options, ClassSummaryCache summaryCache) {
+        ClassFileScanner scanner = new ClassFileScanner();
+        scanner.setSummaryCache(summaryCache);
+        scanner.setResolveReflectionConstants(options.getReflectionMode() == ReflectionAnalyzer.Mode.DATAFLOW);
+        return scanner;
+    }
+
+    private static List<MethodInfo> findDeadMethods(DeadMethodAnalyzer deadMethodAnalyzer, CallGraph callGraph,
+                                                    List<ClassInfo> allClasses, List<MethodInfo> allMethods,
+                                                    ReflectionAnalyzer reflectionAnalyzer, ClassHierarchy hierarchy,
+                                                    AnalysisOptions options) {
+        if (options.getCallGraphMode() == CallGraphMode.RTA) {
+            return deadMethodAnalyzer.findDeadMethodsRta(callGraph, allMethods, hierarchy,
+                    options.isLazyParsing() ? reflectionAnalyzer : null);
+        }
+        if (options.isLazyParsing()) {
+            return deadMethodAnalyzer.findDeadMethodsOnDemand(callGraph, allMethods, reflectionAnalyzer, hierarchy);
+        }
+        return deadMethodAnalyzer.findDeadMethods(callGraph, allClasses);
+    }
+
+    private static KeepRules loadKeepRules(List<ClassInfo> allClasses, AnalysisOptions options) throws IOException {
+        String file = options.getKeepRulesFile();
+        if (file == null || file.isBlank()) {
+            return null;
+        }
+        KeepRules keepRules = KeepRules.load(Paths.get(file));
+        keepRules.bind(allClasses);
+        System.out.println("Loaded " + keepRules.getRuleCount() + " keep rules from " + file);
+        return keepRules;
+    }
+
+    /**
+     * With {@code --live-fields}, field usage is collected from the methods reachability
+     * keeps alive, as it reaches them.
+     */
+    private static DeadFieldAnalyzer createDeadFieldAnalyzer(DeadMethodAnalyzer deadMethodAnalyzer,
+                                                             List<ClassInfo> allClasses, AnalysisOptions options) {
+        DeadFieldAnalyzer deadFieldAnalyzer = new DeadFieldAnalyzer();
+        if (options.isLiveFields()) {
+            deadFieldAnalyzer.beginLiveAnalysis(allClasses);
+            deadMethodAnalyzer.setReachedMethodListener(deadFieldAnalyzer::recordLiveMethod);
+        }
+        return deadFieldAnalyzer;
+    }
+
+    private static List<FieldInfo> findDeadFields(DeadFieldAnalyzer deadFieldAnalyzer, List<ClassInfo> allClasses,
+                                                  List<MethodInfo> deadMethods, AnalysisOptions options) {
+        if (options.isLiveFields()) {
+            return deadFieldAnalyzer.finishLiveAnalysis(deadMethods);
+        }
+        return deadFieldAnalyzer.findDeadFields(allClasses);
+    }
+
+    private static ClassHierarchy buildClassHierarchy(List<ClassInfo> classes, AnalysisOptions options) {
+        return options.getCallGraphMode() != CallGraphMode.EXACT ? new ClassHierarchy(classes) : null;
+    }
+
+    /**
+     * Adds the static call edges of every parsed method. CHA expands virtual calls through
+     * the hierarchy; RTA leaves them out, they are resolved during reachability. Only the
+     * on-demand and RTA traversals walk {@link GraphNode} edge sets; otherwise edges go
+     * straight into the compact graph by symbol id.
+     */
+    private static CallGraph buildCallGraph(List<ClassInfo> classes, ClassHierarchy hierarchy,
+                                            AnalysisOptions options) {
+        CallGraphMode mode = options.getCallGraphMode();
+        CallGraph callGraph = new CallGraph(options.isLazyParsing() || mode == CallGraphMode.RTA);
+
+        for (ClassInfo classInfo : classes) {
+            for (MethodInfo method : classInfo.getMethods()) {
                 callGraph.addMethod(method);
             }
         }
 
-        for (List<MethodInfo> methods : classToMethods.values()) {
-            for (MethodInfo method : methods) {
-                String caller = method.getFullName();
-                for (var instr : method.getInstructions()) {
-                    if (instr.isMethodCall() && instr.getTargetMethod() != null) {
-                        callGraph.addCall(caller, instr.getTargetMethod());
+        for (ClassInfo classInfo : classes) {
+            for (MethodInfo method : classInfo.getMethods()) {
+                // Caller and targets are symbol ids: no name strings are built or hashed here
+                int caller = method.getSymbolId();
+                InstructionList instructions = method.getInstructions();
+                for (int i = 0; i < instructions.size(); i++) {
+                    if (!instructions.isMethodCall(i) || instructions.getTargetId(i) < 0) {
+                        continue;
+                    }
+                    int opcode = instructions.getOpcode(i);
+                    if (mode == CallGraphMode.RTA && isVirtualCall(opcode)) {
+                        continue;
+                    }
+                    if (mode == CallGraphMode.EXACT) {
+                        callGraph.addCall(caller, instructions.getTargetId(i));
+                    } else {
+                        for (int target : hierarchy.resolveTargetIds(opcode, instructions.getTargetId(i),
+                                instructions.getSymbolTable())) {
+                            callGraph.addCall(caller, target);
+                        }
                     }
                 }
             }
@@ -235,37 +482,28 @@ public class Main {
         return callGraph;
     }
 
+    private static boolean isVirtualCall(int opcode) {
+        return opcode == Opcodes.INVOKEVIRTUAL || opcode == Opcodes.INVOKEINTERFACE;
+    }
+
     private static List<MethodInfo> extractAllMethods(CallGraph callGraph) {
         return callGraph.getAllNodes().stream()
                 .map(GraphNode::getMethodInfo)
                 .toList();
     }
 
-    private static List<ClassInfo> extractAllClassesWithFields(List<byte[]> classBytesList) {
-        List<ClassInfo> classes = new ArrayList<>();
-
-        for (byte[] bytes : classBytesList) {
-            ClassScanner classScanner = new ClassScanner();
-            ClassInfo classInfo = classScanner.scanClass(bytes);
-
-            MethodScanner scanner = new MethodScanner();
-            classInfo.setMethods(scanner.scanMethods(bytes, classInfo.getClassName()));
-            classInfo.setFields(scanner.scanFields(bytes, classInfo.getClassName()));
-
-            classes.add(classInfo);
+    private static List<MethodInfo> getLiveMethods(Collection<GraphNode> nodes, List<MethodInfo> deadMethods,
+                                                   AnalysisOptions options) {
+        BitSet deadIds = new BitSet();
+        for (MethodInfo method : deadMethods) {
+            deadIds.set(method.getSymbolId());
         }
 
-        return classes;
-    }
-
-    private static List<MethodInfo> getLiveMethods(Collection<GraphNode> nodes, List<MethodInfo> deadMethods) {
-        Set<String> deadIds = deadMethods.stream()
-                .map(MethodInfo::getFullName)
-                .collect(Collectors.toSet());
-
+        // With lazy parsing, methods that were never reached have no decoded body to inspect
         return nodes.stream()
                 .map(GraphNode::getMethodInfo)
-                .filter(m -> !deadIds.contains(m.getFullName()))
+                .filter(m -> !deadIds.get(m.getSymbolId()))
+                .filter(m -> !options.isLazyParsing() || m.isBodyLoaded())
                 .toList();
     }
 
@@ -290,6 +528,26 @@ public class Main {
         System.out.println("Total reflection operations found: " + total);
     }
 
+    private static void printFieldsKeptAliveByDeadCode(List<FieldInfo> fields) {
+        if (fields.isEmpty()) {
+            return;
+        }
+
+        System.out.println("\nFIELDS READ ONLY BY DEAD METHODS:");
+        System.out.println("─".repeat(70));
+        Map<String, List<FieldInfo>> byClass = new TreeMap<>();
+        for (FieldInfo field : fields) {
+            byClass.computeIfAbsent(field.getOwnerClass(), k -> new ArrayList<>()).add(field);
+        }
+        for (Map.Entry<String, List<FieldInfo>> entry : byClass.entrySet()) {
+            System.out.println("Class: " + entry.getKey());
+            for (FieldInfo field : entry.getValue()) {
+                System.out.println(" • " + field.getDescriptor() + " " + field.getFieldName());
+            }
+        }
+        System.out.println("Total fields kept alive only by dead code: " + fields.size());
+    }
+
     private static void printDeadFieldsReport(List<FieldInfo> deadFields, DeadFieldAnalyzer analyzer) {
         if (deadFields.isEmpty()) {
             System.out.println("No unused fields found.");
@@ -366,16 +624,33 @@ public class Main {
 
     private static void printUsage() {
         System.out.println("Java Bytecode Dead Code & Reflection Analyzer");
-        System.out.println("Usage: java -jar analyzer.jar <path>");
+        System.out.println("Usage: java -jar analyzer.jar <path> [options]");
         System.out.println();
         System.out.println("  <path> can be:");
         System.out.println("    • directory with .class files");
         System.out.println("    • single .class file");
         System.out.println("    • .jar file");
         System.out.println();
+        System.out.println("  Options:");
+        System.out.println("    --threads N     worker threads for parallel phases (default 1, 0 = all cores)");
+        System.out.println("    --lazy          decode method bodies only when reachability reaches them");
+        System.out.println("    --cache-dir D   persistent per-class summary cache (keyed by SHA-256)");
+        System.out.println("    --cache-size MB size limit of the summary cache, LRU evicted (default 512)");
+        System.out.println("    --reflection-mode M");
+        System.out.println("                    heuristic (default) links plausible string constants,");
+        System.out.println("                    dataflow links only constants that reach the reflection call");
+        System.out.println("    --call-graph G  exact (default), cha (virtual calls reach all overrides)");
+        System.out.println("                    or rta (only overrides in classes instantiated by live code)");
+        System.out.println("    --strict-entry-points");
+        System.out.println("                    do not treat public static methods without callers as entry points,");
+        System.out.println("                    recognize tests by annotation instead of by name");
+        System.out.println("    --live-fields   count field accesses of reachable methods only");
+        System.out.println("    --keep-rules F  ProGuard-style -keep rules marking additional entry points");
+        System.out.println();
         System.out.println("Examples:");
         System.out.println("  java -jar analyzer.jar ./target/classes");
         System.out.println("  java -jar analyzer.jar myapp.jar");
         System.out.println("  java -jar analyzer.jar com/example/MyClass.class");
+        System.out.println("  java -jar analyzer.jar app.war --threads 0");
     }
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package org.example.analysis;
+
+import org.example.model.ClassInfo;
+import org.example.model.MethodInfo;
+import org.objectweb.asm.Opcodes;
+
+import java.util.*;
+
+/**
+ * Inverted index from annotation class name to the classes and methods carrying it, built
+ * in one pass over the annotations the scanner recorded. Looking up the members of an
+ * annotation is a single map probe, independent of the number of analyzed methods.
+ */
+public class AnnotationIndex {
+
+    private final Map<String, List<ClassInfo>> classesByAnnotation = new HashMap<>();
+    private final Map<String, List<MethodInfo>> methodsByAnnotation = new HashMap<>();
+
+    public AnnotationIndex(List<ClassInfo> classes) {
+        for (ClassInfo classInfo : classes) {
+            for (String annotation : classInfo.getAnnotations()) {
+                classesByAnnotation.computeIfAbsent(annotation, k -> new ArrayList<>()).add(classInfo);
+            }
+            for (MethodInfo method : classInfo.getMethods()) {
+                for (String annotation : method.getAnnotations()) {
+                    methodsByAnnotation.computeIfAbsent(annotation, k -> new ArrayList<>()).add(method);
+                }
+            }
+        }
+    }
+
+    public List<ClassInfo> getClassesAnnotatedWith(String annotation) {
+        return classesByAnnotation.getOrDefault(annotation, Collections.emptyList());
+    }
+
+    public List<MethodInfo> getMethodsAnnotatedWith(String annotation) {
+        return methodsByAnnotation.getOrDefault(annotation, Collections.emptyList());
+    }
+
+    /**
+     * Returns {@code annotations} plus every analyzed annotation type that is (transitively)
+     * meta-annotated with one of them, e.g. a custom stereotype annotated with
+     * {@code @Component}.
+     */
+    public Set<String> withMetaAnnotated(Collection<String> annotations) {
+        Set<String> result = new LinkedHashSet<>(annotations);
+        Deque<String> pending = new ArrayDeque<>(annotations);
+        while (!pending.isEmpty()) {
+            for (ClassInfo annotated : getClassesAnnotatedWith(pending.pop())) {
+                if ((annotated.getAccessFlags() & Opcodes.ACC_ANNOTATION) != 0
+                        && result.add(annotated.getClassName())) {
+                    pending.push(annotated.getClassName());
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -1,19 +1,40 @@
 package org.example.analysis;
 
 import org.example.graph.ControlFlowGraph;
-import org.example.model.InstructionInfo;
+import org.example.model.InstructionList;
 import org.example.model.MethodInfo;
+import org.example.util.ForkJoinUtils;
+
 import java.util.*;
+import java.util.concurrent.RecursiveAction;
 
 public class DeadBlockAnalyzer {
 
+    /** Method lists smaller than this are analyzed sequentially; the pool overhead is not worth it. */
+    public static final int PARALLEL_THRESHOLD = 2_000;
+
+    // Consecutive methods are batched into one leaf task until they hold this many instructions,
+    // so the many tiny methods (getters, constructors) are not scheduled one by one
+    private static final int BATCH_INSTRUCTIONS = 8_192;
+
+    private final int parallelism;
+
+    public DeadBlockAnalyzer() {
+        this(1);
+    }
+
+    /**
+     * @param parallelism worker threads for large method lists
+     */
+    public DeadBlockAnalyzer(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
     public Map<String, Set<Integer>> findDeadBlocks(MethodInfo methodInfo) {
         Map<String, Set<Integer>> deadBlocks = new HashMap<>();
 
-        ControlFlowGraph cfg = new ControlFlowGraph(methodInfo);
-        Set<Integer> unreachableInstructions = cfg.findUnreachableInstructions(0);
-
-        if (!unreachableInstructions.isEmpty()) {
+        Set<Integer> unreachableInstructions = findUnreachableInstructions(methodInfo);
+        if (unreachableInstructions != null) {
             String methodKey = methodInfo.getFullName();
             deadBlocks.put(methodKey, unreachableInstructions);
         }
@@ -21,31 +42,122 @@ public class DeadBlockAnalyzer {
         return deadBlocks;
     }
 
+    /**
+     * Unreachable instruction indices of one method, or null if every instruction is reachable.
+     */
+    private static Set<Integer> findUnreachableInstructions(MethodInfo methodInfo) {
+        if (methodInfo.getInstructions().isEmpty()) {
+            return null;
+        }
+
+        ControlFlowGraph cfg = new ControlFlowGraph(methodInfo);
+        BitSet unreachable = cfg.findUnreachableInstructions(0);
+        if (unreachable.isEmpty()) {
+            return null;
+        }
+
+        // Indices are boxed only for the (rare) methods that have dead code
+        Set<Integer> unreachableInstructions = new LinkedHashSet<>();
+        for (int i = unreachable.nextSetBit(0); i >= 0; i = unreachable.nextSetBit(i + 1)) {
+            unreachableInstructions.add(i);
+        }
+        return unreachableInstructions;
+    }
+
+    /**
+     * Dead blocks of every method, grouped by class. With a parallelism above 1 and at least
+     * {@link #PARALLEL_THRESHOLD} methods, the per-method CFGs are built on a fork-join pool.
+     */
     public Map<String, Map<String, Set<Integer>>> findDeadBlocksInMethods(List<MethodInfo> methods) {
-        Map<String, Map<String, Set<Integer>>> results = new HashMap<>();
+        // One slot per method: every task writes only its own slots, so no synchronization
+        // is needed, and results are merged once, in method order. The list is pre-sized,
+        // so set() never resizes it.
+        List<Set<Integer>> unreachable = new ArrayList<>(Collections.nCopies(methods.size(), null));
 
-        for (MethodInfo method : methods) {
-            Map<String, Set<Integer>> deadBlocks = findDeadBlocks(method);
+        if (parallelism > 1 && methods.size() >= PARALLEL_THRESHOLD) {
+            int[] batchStarts = batch(methods);
+            ForkJoinUtils.invoke(parallelism,
+                    () -> new BatchTask(methods, batchStarts, unreachable, 0, batchStarts.length - 1).invoke());
+        } else {
+            for (int i = 0; i < methods.size(); i++) {
+                unreachable.set(i, findUnreachableInstructions(methods.get(i)));
+            }
+        }
 
-            for (Map.Entry<String, Set<Integer>> entry : deadBlocks.entrySet()) {
-                String className = method.getOwnerClass();
-                results.putIfAbsent(className, new HashMap<>());
-                results.get(className).put(entry.getKey(), entry.getValue());
+        Map<String, Map<String, Set<Integer>>> results = new HashMap<>();
+        for (int i = 0; i < unreachable.size(); i++) {
+            if (unreachable.get(i) != null) {
+                MethodInfo method = methods.get(i);
+                results.computeIfAbsent(method.getOwnerClass(), k -> new HashMap<>())
+                        .put(method.getFullName(), unreachable.get(i));
             }
         }
 
         return results;
     }
 
+    /**
+     * Splits {@code methods} into runs of about {@link #BATCH_INSTRUCTIONS} instructions.
+     * Returns the start index of every batch followed by {@code methods.size()}.
+     */
+    private static int[] batch(List<MethodInfo> methods) {
+        int[] starts = new int[16];
+        int count = 0;
+        int instructions = BATCH_INSTRUCTIONS;
+        for (int i = 0; i < methods.size(); i++) {
+            if (instructions >= BATCH_INSTRUCTIONS) {
+                if (count + 1 == starts.length) {
+                    starts = Arrays.copyOf(starts, starts.length * 2);
+                }
+                starts[count++] = i;
+                instructions = 0;
+            }
+            instructions += methods.get(i).getInstructions().size() + 1;
+        }
+        starts[count++] = methods.size();
+        return Arrays.copyOf(starts, count);
+    }
+
+    private static class BatchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<MethodInfo> methods;
+        private final int[] batchStarts;
+        private final List<Set<Integer>> unreachable;
+        private final int fromBatch;
+        private final int toBatch;
+
+        BatchTask(List<MethodInfo> methods, int[] batchStarts, List<Set<Integer>> unreachable,
+                  int fromBatch, int toBatch) {
+            this.methods = methods;
+            this.batchStarts = batchStarts;
+            this.unreachable = unreachable;
+            this.fromBatch = fromBatch;
+            this.toBatch = toBatch;
+        }
+
+        @Override
+        protected void compute() {
+            if (toBatch - fromBatch > 1) {
+                int mid = (fromBatch + toBatch) >>> 1;
+                invokeAll(new BatchTask(methods, batchStarts, unreachable, fromBatch, mid),
+                        new BatchTask(methods, batchStarts, unreachable, mid, toBatch));
+                return;
+            }
+            for (int i = batchStarts[fromBatch]; i < batchStarts[toBatch]; i++) {
+                unreachable.set(i, findUnreachableInstructions(methods.get(i)));
+            }
+        }
+    }
+
     public List<String> getDeadBlockDescriptions(MethodInfo methodInfo, Set<Integer> deadIndices) {
         List<String> descriptions = new ArrayList<>();
-        List<InstructionInfo> instructions = methodInfo.getInstructions();
+        InstructionList instructions = methodInfo.getInstructions();
 
         for (int index : deadIndices) {
             if (index < instructions.size()) {
-                InstructionInfo instr = instructions.get(index);
                 descriptions.add(String.format("Instruction %d: opcode=%d, type=%s",
-                        index, instr.getOpcode(), instr.getInstructionType()));
+                        index, instructions.getOpcode(index), instructions.getInstructionType(index)));
             }
         }
 
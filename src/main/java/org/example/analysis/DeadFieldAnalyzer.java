@@ -2,6 +2,7 @@ package org.example.analysis;
 
 import org.example.model.ClassInfo;
 import org.example.model.FieldInfo;
+import org.example.model.MethodInfo;
 import java.util.*;
 
 public class DeadFieldAnalyzer {
@@ -11,54 +12,69 @@ public class DeadFieldAnalyzer {
         this.fieldUsageAnalyzer = new FieldUsageAnalyzer();
     }
 
+    /**
+     * Unused fields followed by write-only fields, each in declaration order.
+     */
     public List<FieldInfo> findDeadFields(List<ClassInfo> classes) {
-        Map<String, List<FieldInfo>> unusedFieldsMap =
-                fieldUsageAnalyzer.findUnusedFields(classes);
+        fieldUsageAnalyzer.analyze(classes);
+        return collectDeadFields();
+    }
 
-        Map<String, List<FieldInfo>> writeOnlyFieldsMap =
-                findWriteOnlyFields(classes);
+    // ── Liveness-aware mode ────────────────────────────────────────────────────
 
-        List<FieldInfo> allDeadFields = new ArrayList<>();
+    /**
+     * Starts a field analysis restricted to live code: only methods passed to
+     * {@link #recordLiveMethod} make a field used. Feed it from reachability through
+     * {@link DeadMethodAnalyzer#setReachedMethodListener}.
+     */
+    public void beginLiveAnalysis(List<ClassInfo> classes) {
+        fieldUsageAnalyzer.index(classes);
+    }
 
-        for (List<FieldInfo> fields : unusedFieldsMap.values()) {
-            allDeadFields.addAll(fields);
-        }
+    public void recordLiveMethod(MethodInfo method) {
+        method.ensureBodyLoaded();
+        fieldUsageAnalyzer.recordFieldAccesses(method);
+    }
 
-        for (List<FieldInfo> fields : writeOnlyFieldsMap.values()) {
-            for (FieldInfo field : fields) {
-                if (!allDeadFields.contains(field)) {
-                    allDeadFields.add(field);
-                }
+    /**
+     * Ends a liveness-aware run and returns the dead fields. The accesses of the decoded
+     * {@code deadMethods} are only used for {@link #getFieldsKeptAliveByDeadCode()}.
+     */
+    public List<FieldInfo> finishLiveAnalysis(List<MethodInfo> deadMethods) {
+        for (MethodInfo method : deadMethods) {
+            if (method.isBodyLoaded()) {
+                fieldUsageAnalyzer.recordDeadCodeAccesses(method);
             }
         }
-
-        return allDeadFields;
+        fieldUsageAnalyzer.applyFlags();
+        return collectDeadFields();
     }
 
-    private Map<String, List<FieldInfo>> findWriteOnlyFields(List<ClassInfo> classes) {
-        Map<String, List<FieldInfo>> writeOnlyFieldsByClass = new HashMap<>();
-
-        for (ClassInfo classInfo : classes) {
-            List<FieldInfo> writeOnlyFields = new ArrayList<>();
+    /**
+     * Dead fields of a liveness-aware run that dead methods still read.
+     */
+    public List<FieldInfo> getFieldsKeptAliveByDeadCode() {
+        BitSet keptAlive = fieldUsageAnalyzer.getFieldsReadOnlyByDeadCode();
+        List<FieldInfo> fields = new ArrayList<>(keptAlive.cardinality());
+        for (int i = keptAlive.nextSetBit(0); i >= 0; i = keptAlive.nextSetBit(i + 1)) {
+            fields.add(fieldUsageAnalyzer.getField(i));
+        }
+        return fields;
+    }
 
-            for (FieldInfo field : classInfo.getFields()) {
-                if (field.isWritten() && !field.isRead() && !shouldExcludeField(field)) {
-                    writeOnlyFields.add(field);
-                }
-            }
+    private List<FieldInfo> collectDeadFields() {
+        BitSet unused = fieldUsageAnalyzer.getUnusedFields();
+        BitSet writeOnly = fieldUsageAnalyzer.getWriteOnlyFields(); // disjoint from unused
 
-            if (!writeOnlyFields.isEmpty()) {
-                writeOnlyFieldsByClass.put(classInfo.getClassName(), writeOnlyFields);
-            }
+        List<FieldInfo> allDeadFields = new ArrayList<>(unused.cardinality() + writeOnly.cardinality());
+        for (int i = unused.nextSetBit(0); i >= 0; i = unused.nextSetBit(i + 1)) {
+            allDeadFields.add(fieldUsageAnalyzer.getField(i));
+        }
+        for (int i = writeOnly.nextSetBit(0); i >= 0; i = writeOnly.nextSetBit(i + 1)) {
+            allDeadFields.add(fieldUsageAnalyzer.getField(i));
         }
 
-        return writeOnlyFieldsByClass;
-    }
-
-    private boolean shouldExcludeField(FieldInfo field) {
-        return field.isFinal() && field.isStatic() ||
-                field.getFieldName().startsWith("$") ||
-                field.getFieldName().equals("serialVersionUID");
+        return allDeadFields;
     }
 
     public Map<String, List<String>> categorizeDeadFields(List<FieldInfo> deadFields) {
@@ -1,22 +1,86 @@
 package org.example.analysis;
 
 import org.example.graph.CallGraph;
+import org.example.graph.ClassHierarchy;
+import org.example.graph.CompactCallGraph;
 import org.example.graph.GraphNode;
+import org.example.model.ArchiveMetadata;
 import org.example.model.ClassInfo;
 import org.example.model.MethodInfo;
 
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 public class DeadMethodAnalyzer {
 
     private final ReachabilityAnalyzer reachabilityAnalyzer;
+    private final int parallelism;
+    private final boolean strictEntryPoints;
+    private Consumer<MethodInfo> reachedMethodListener;
+    private KeepRules keepRules;
+    private AnnotationIndex annotationIndex;
+    private ArchiveMetadata archiveMetadata;
 
     public DeadMethodAnalyzer() {
+        this(1);
+    }
+
+    /**
+     * @param parallelism worker threads for reachability on very large call graphs
+     */
+    public DeadMethodAnalyzer(int parallelism) {
+        this(parallelism, false);
+    }
+
+    /**
+     * @param parallelism       worker threads for reachability on very large call graphs
+     * @param strictEntryPoints skip the "public static method without callers" entry point
+     *                          heuristic and the test method name heuristic, see
+     *                          {@link EntryPointResolver#EntryPointResolver(boolean, KeepRules, AnnotationIndex)}
+     */
+    public DeadMethodAnalyzer(int parallelism, boolean strictEntryPoints) {
         this.reachabilityAnalyzer = new ReachabilityAnalyzer();
+        this.parallelism = parallelism;
+        this.strictEntryPoints = strictEntryPoints;
+    }
+
+    /**
+     * Notified once for every method the analysis keeps alive: reached methods as the
+     * traversal discovers them, then unreached methods that are never reported as dead
+     * (static initializers, bridges, ...). Used to fold liveness-aware field analysis into
+     * reachability.
+     */
+    public void setReachedMethodListener(Consumer<MethodInfo> reachedMethodListener) {
+        this.reachedMethodListener = reachedMethodListener;
+    }
+
+    /**
+     * Keep rules whose methods are additional entry points; must already be bound to the
+     * analyzed classes.
+     */
+    public void setKeepRules(KeepRules keepRules) {
+        this.keepRules = keepRules;
+    }
+
+    /**
+     * Annotations of the analyzed classes, used to add framework entry points (tests,
+     * request handlers, beans, ...).
+     */
+    public void setAnnotationIndex(AnnotationIndex annotationIndex) {
+        this.annotationIndex = annotationIndex;
+    }
+
+    /**
+     * Main classes and service providers declared by the scanned archives, used as exact
+     * entry points.
+     */
+    public void setArchiveMetadata(ArchiveMetadata archiveMetadata) {
+        this.archiveMetadata = archiveMetadata;
     }
 
     public List<MethodInfo> findDeadMethods(CallGraph callGraph, List<ClassInfo> classes) {
-        EntryPointResolver resolver = new EntryPointResolver();
+        EntryPointResolver resolver = new EntryPointResolver(strictEntryPoints, keepRules, annotationIndex, archiveMetadata);
         Set<GraphNode> entryPoints = resolver.resolveEntryPoints(callGraph);
 
         if (entryPoints == null || entryPoints.isEmpty()) {
@@ -25,35 +89,105 @@ public class DeadMethodAnalyzer {
             return filterOutSpecialMethods(all, resolver);
         }
 
-        Set<GraphNode> reachable = new HashSet<>();
-
+        // Seed every entry point into one frontier instead of running a BFS per entry
+        CompactCallGraph graph = callGraph.toCompact();
+        int[] seeds = new int[entryPoints.size()];
+        int seedCount = 0;
         for (GraphNode entry : entryPoints) {
-            Set<GraphNode> deadFromEntry = reachabilityAnalyzer.findDeadMethods(callGraph, entry);
-            Set<GraphNode> allNodes = new HashSet<>(callGraph.getAllNodes());
-            Set<GraphNode> reachableFromEntry = new HashSet<>(allNodes);
-            reachableFromEntry.removeAll(deadFromEntry);
-            reachable.addAll(reachableFromEntry);
+            seeds[seedCount++] = graph.getMethodId(entry.getMethodInfo().getSymbolId());
         }
 
-        Set<GraphNode> allNodes = new HashSet<>(callGraph.getAllNodes());
-        Set<GraphNode> candidateDead = new HashSet<>(allNodes);
-        candidateDead.removeAll(reachable);
+        // The listener runs as the traversal marks each method, not as a pass afterwards
+        IntConsumer onReached = reachedMethodListener != null
+                ? id -> reachedMethodListener.accept(graph.getMethodInfo(id))
+                : null;
+        BitSet reachable = parallelism > 1 && graph.size() >= ParallelReachabilityAnalyzer.PARALLEL_THRESHOLD
+                ? new ParallelReachabilityAnalyzer(parallelism).findReachable(graph, seeds, onReached)
+                : reachabilityAnalyzer.findReachable(graph, seeds, onReached);
 
+        // Report in call graph node order, like the other traversals
         List<MethodInfo> deadMethods = new ArrayList<>();
-        for (GraphNode node : candidateDead) {
-            deadMethods.add(node.getMethodInfo());
+        for (GraphNode node : callGraph.getAllNodes()) {
+            int id = graph.getMethodId(node.getMethodInfo().getSymbolId());
+            if (id < 0 || !reachable.get(id)) {
+                deadMethods.add(node.getMethodInfo());
+            }
         }
 
         // Remove special/protected methods
         return filterOutSpecialMethods(deadMethods, resolver);
     }
 
+    /**
+     * Dead method detection for header-only call graphs: bodies are decoded (and their call
+     * edges added) only as the traversal reaches them, see {@link LazyReachabilityAnalyzer}.
+     *
+     * @param hierarchy class hierarchy for CHA edges, or null for exact edges only
+     */
+    public List<MethodInfo> findDeadMethodsOnDemand(CallGraph callGraph, List<MethodInfo> allMethods,
+                                                    ReflectionAnalyzer reflectionAnalyzer,
+                                                    ClassHierarchy hierarchy) {
+        EntryPointResolver resolver = new EntryPointResolver(strictEntryPoints, keepRules, annotationIndex, archiveMetadata);
+        Set<GraphNode> entryPoints = resolver.resolveEntryPoints(callGraph);
+
+        if (entryPoints == null || entryPoints.isEmpty()) {
+            System.out.println("Warning: No entry points found.");
+            List<MethodInfo> all = getAllMethods(callGraph);
+            return filterOutSpecialMethods(all, resolver);
+        }
+
+        LazyReachabilityAnalyzer lazy = new LazyReachabilityAnalyzer(reflectionAnalyzer, hierarchy);
+        lazy.setReachedMethodListener(reachedMethodListener);
+        Set<GraphNode> reachable = lazy.findReachableMethods(callGraph, entryPoints, allMethods);
+
+        return filterOutSpecialMethods(collectUnreached(callGraph, reachable), resolver);
+    }
+
+    /**
+     * Dead method detection with rapid type analysis: virtual calls only reach classes that
+     * are instantiated by reachable code, see {@link RapidTypeAnalyzer}.
+     *
+     * @param lazyReflection reflection analyzer for header-only call graphs, or null if
+     *                       reflection edges are already in {@code callGraph}
+     */
+    public List<MethodInfo> findDeadMethodsRta(CallGraph callGraph, List<MethodInfo> allMethods,
+                                               ClassHierarchy hierarchy, ReflectionAnalyzer lazyReflection) {
+        EntryPointResolver resolver = new EntryPointResolver(strictEntryPoints, keepRules, annotationIndex, archiveMetadata);
+        Set<GraphNode> entryPoints = resolver.resolveEntryPoints(callGraph);
+
+        if (entryPoints == null || entryPoints.isEmpty()) {
+            System.out.println("Warning: No entry points found.");
+            List<MethodInfo> all = getAllMethods(callGraph);
+            return filterOutSpecialMethods(all, resolver);
+        }
+
+        RapidTypeAnalyzer rta = new RapidTypeAnalyzer(hierarchy, lazyReflection);
+        rta.setReachedMethodListener(reachedMethodListener);
+        Set<GraphNode> reachable = rta.findReachableMethods(callGraph, entryPoints, allMethods);
+        System.out.printf("Rapid type analysis: %,d instantiated classes, %,d reachable methods%n",
+                rta.getInstantiatedTypeCount(), reachable.size());
+
+        return filterOutSpecialMethods(collectUnreached(callGraph, reachable), resolver);
+    }
+
+    private List<MethodInfo> collectUnreached(CallGraph callGraph, Set<GraphNode> reachable) {
+        List<MethodInfo> deadMethods = new ArrayList<>();
+        for (GraphNode node : callGraph.getAllNodes()) {
+            if (!reachable.contains(node)) {
+                deadMethods.add(node.getMethodInfo());
+            }
+        }
+        return deadMethods;
+    }
+
     private List<MethodInfo> filterOutSpecialMethods(List<MethodInfo> methods, EntryPointResolver resolver) {
         List<MethodInfo> filtered = new ArrayList<>();
 
         for (MethodInfo m : methods) {
             if (!isSpecialMethod(m, resolver)) {
                 filtered.add(m);
+            } else if (reachedMethodListener != null) {
+                reachedMethodListener.accept(m);
             }
         }
 
@@ -72,8 +206,9 @@ public class DeadMethodAnalyzer {
             return true;
         }
 
-        // Synthetic / bridge methods
-        if ((access & 0x1000) != 0 || (access & 0x0040) != 0) {
+        // Synthetic / bridge methods. Lambda bodies are synthetic too, but invokedynamic
+        // sites link them like ordinary calls, so they are reported when unreachable.
+        if ((access & 0x0040) != 0 || ((access & 0x1000) != 0 && !name.startsWith("lambda$"))) {
             return true;
         }
 
@@ -81,7 +216,7 @@ public class DeadMethodAnalyzer {
     }
 
     public List<MethodInfo> findDeadMethodsSimple(CallGraph callGraph) {
-        EntryPointResolver resolver = new EntryPointResolver();
+        EntryPointResolver resolver = new EntryPointResolver(strictEntryPoints, keepRules, annotationIndex, archiveMetadata);
         Set<GraphNode> entryPoints = resolver.resolveEntryPoints(callGraph);
 
         if (entryPoints == null || entryPoints.isEmpty()) {
@@ -2,6 +2,8 @@ package org.example.analysis;
 
 import org.example.graph.CallGraph;
 import org.example.graph.GraphNode;
+import org.example.model.ArchiveMetadata;
+import org.example.model.ClassInfo;
 import org.example.model.MethodInfo;
 
 import java.util.*;
@@ -12,70 +14,200 @@ import java.util.*;
  */
 public class EntryPointResolver {
 
-    // Cache for classes that contain a main method (used by shouldExcludeFromDead)
-    private final Set<String> classesWithMainMethod = new HashSet<>();
+    /**
+     * Methods a framework calls: test lifecycle (JUnit 4/5, TestNG), Spring request
+     * handlers, bean factories, listeners and scheduled tasks, JAX-RS resource methods and
+     * container lifecycle callbacks.
+     */
+    static final List<String> FRAMEWORK_METHOD_ANNOTATIONS = List.of(
+            "org.junit.Test", "org.junit.Before", "org.junit.After",
+            "org.junit.BeforeClass", "org.junit.AfterClass",
+            "org.junit.jupiter.api.Test", "org.junit.jupiter.api.BeforeEach", "org.junit.jupiter.api.AfterEach",
+            "org.junit.jupiter.api.BeforeAll", "org.junit.jupiter.api.AfterAll",
+            "org.junit.jupiter.api.RepeatedTest", "org.junit.jupiter.api.TestFactory",
+            "org.junit.jupiter.api.TestTemplate", "org.junit.jupiter.params.ParameterizedTest",
+            "org.testng.annotations.Test", "org.testng.annotations.BeforeMethod",
+            "org.testng.annotations.AfterMethod", "org.testng.annotations.BeforeClass",
+            "org.testng.annotations.AfterClass",
+            "org.springframework.web.bind.annotation.RequestMapping",
+            "org.springframework.web.bind.annotation.GetMapping",
+            "org.springframework.web.bind.annotation.PostMapping",
+            "org.springframework.web.bind.annotation.PutMapping",
+            "org.springframework.web.bind.annotation.DeleteMapping",
+            "org.springframework.web.bind.annotation.PatchMapping",
+            "org.springframework.web.bind.annotation.ExceptionHandler",
+            "org.springframework.web.bind.annotation.ModelAttribute",
+            "org.springframework.web.bind.annotation.InitBinder",
+            "org.springframework.context.annotation.Bean",
+            "org.springframework.context.event.EventListener",
+            "org.springframework.scheduling.annotation.Scheduled",
+            "org.springframework.beans.factory.annotation.Autowired",
+            "javax.ws.rs.GET", "javax.ws.rs.POST", "javax.ws.rs.PUT", "javax.ws.rs.DELETE",
+            "javax.ws.rs.HEAD", "javax.ws.rs.OPTIONS", "javax.ws.rs.PATCH", "javax.ws.rs.Path",
+            "jakarta.ws.rs.GET", "jakarta.ws.rs.POST", "jakarta.ws.rs.PUT", "jakarta.ws.rs.DELETE",
+            "jakarta.ws.rs.HEAD", "jakarta.ws.rs.OPTIONS", "jakarta.ws.rs.PATCH", "jakarta.ws.rs.Path",
+            "javax.annotation.PostConstruct", "javax.annotation.PreDestroy",
+            "jakarta.annotation.PostConstruct", "jakarta.annotation.PreDestroy");
 
     /**
-     * Identifies all reachable entry points in the given call graph.
+     * Classes a framework instantiates; their constructors are entry points. Custom
+     * stereotypes meta-annotated with one of these count as well.
      */
-    public Set<GraphNode> resolveEntryPoints(CallGraph callGraph) {
-        Set<GraphNode> entryPoints = new HashSet<>();
+    static final List<String> FRAMEWORK_CLASS_ANNOTATIONS = List.of(
+            "org.springframework.stereotype.Component",
+            "org.springframework.stereotype.Service",
+            "org.springframework.stereotype.Repository",
+            "org.springframework.stereotype.Controller",
+            "org.springframework.web.bind.annotation.RestController",
+            "org.springframework.web.bind.annotation.ControllerAdvice",
+            "org.springframework.context.annotation.Configuration",
+            "org.springframework.boot.autoconfigure.SpringBootApplication",
+            "javax.ws.rs.Path", "javax.ws.rs.ext.Provider",
+            "jakarta.ws.rs.Path", "jakarta.ws.rs.ext.Provider");
 
-        // Standard Java main methods
-        findMainMethods(callGraph, entryPoints);
+    // Cache for classes that contain a main method (used by shouldExcludeFromDead)
+    private final Set<String> classesWithMainMethod = new HashSet<>();
 
-        // JUnit test methods
-        findJUnitTestMethods(callGraph, entryPoints);
+    private final boolean strict;
+    private final KeepRules keepRules;
+    private final AnnotationIndex annotationIndex;
+    private final ArchiveMetadata archiveMetadata;
 
-        // Public static utility methods with no callers
-        findPublicStaticMethods(callGraph, entryPoints);
+    public EntryPointResolver() {
+        this(false);
+    }
 
-        // Constructors of classes that have main methods
-        findMainClassConstructors(callGraph, entryPoints);
+    /**
+     * @param strict if true, public static methods without callers are not treated as
+     *               entry points (use with a precise call graph, e.g. CHA or RTA)
+     */
+    public EntryPointResolver(boolean strict) {
+        this(strict, null);
+    }
 
-        return entryPoints;
+    /**
+     * @param keepRules bound keep rules whose methods are entry points as well, or null
+     */
+    public EntryPointResolver(boolean strict, KeepRules keepRules) {
+        this(strict, keepRules, null);
     }
 
-    private void findMainMethods(CallGraph callGraph, Set<GraphNode> entryPoints) {
-        for (GraphNode node : callGraph.getAllNodes()) {
-            MethodInfo method = node.getMethodInfo();
-            if (isMainMethod(method)) {
-                entryPoints.add(node);
-                classesWithMainMethod.add(method.getOwnerClass()); // Cache for later use
-                System.out.println("[Entry Point] Main method: " + node.getNodeId());
-            }
-        }
+    /**
+     * @param strict          if true, public static methods without callers are not entry
+     *                        points, and test methods are recognized by annotation (plus JUnit 3
+     *                        {@code public void test*()}) instead of by name
+     * @param keepRules       bound keep rules whose methods are entry points as well, or null
+     * @param annotationIndex annotations of the analyzed classes; framework-annotated methods
+     *                        and the constructors of framework-managed classes become entry
+     *                        points. Null disables framework entry points.
+     */
+    public EntryPointResolver(boolean strict, KeepRules keepRules, AnnotationIndex annotationIndex) {
+        this(strict, keepRules, annotationIndex, null);
     }
 
-    private void findJUnitTestMethods(CallGraph callGraph, Set<GraphNode> entryPoints) {
+    /**
+     * @param archiveMetadata main classes and service providers declared by the scanned
+     *                        archives: the manifest main class's {@code main} method, and the
+     *                        public no-arg constructors and static {@code provider()} methods of
+     *                        service providers become entry points. May be null.
+     */
+    public EntryPointResolver(boolean strict, KeepRules keepRules, AnnotationIndex annotationIndex,
+                              ArchiveMetadata archiveMetadata) {
+        this.strict = strict;
+        this.keepRules = keepRules;
+        this.annotationIndex = annotationIndex;
+        this.archiveMetadata = archiveMetadata;
+    }
+
+    /**
+     * Identifies all reachable entry points in the given call graph: main methods, test
+     * methods, public static methods without callers (unless strict), methods kept by the
+     * keep rules, framework-annotated methods, methods declared by archive metadata (manifest
+     * main class, service providers), and constructors of classes with a main method or
+     * managed by a framework. Every node is classified in one pass; framework
+     * methods are looked up per annotation in the index, and constructors wait until all
+     * main and framework classes are known.
+     */
+    public Set<GraphNode> resolveEntryPoints(CallGraph callGraph) {
+        Set<GraphNode> entryPoints = new HashSet<>();
+        List<GraphNode> constructors = new ArrayList<>();
+        int mainMethods = 0;
+        int testMethods = 0;
+        int publicStaticMethods = 0;
+        int keptMethods = 0;
+        int archiveEntries = 0;
+        Set<String> manifestMainClasses = archiveMetadata != null
+                ? archiveMetadata.getMainClasses() : Collections.emptySet();
+        Set<String> providerClasses = archiveMetadata != null
+                ? archiveMetadata.getProviderClasses() : Collections.emptySet();
+
         for (GraphNode node : callGraph.getAllNodes()) {
             MethodInfo method = node.getMethodInfo();
-            if (isTestMethod(method)) {
+            if (isArchiveEntryPoint(method, manifestMainClasses, providerClasses)) {
+                entryPoints.add(node);
+                if (manifestMainClasses.contains(method.getOwnerClass())) {
+                    classesWithMainMethod.add(method.getOwnerClass());
+                }
+                archiveEntries++;
+            } else if (isMainMethod(method)) {
+                entryPoints.add(node);
+                classesWithMainMethod.add(method.getOwnerClass()); // Cache for later use
+                mainMethods++;
+            } else if (isTestMethod(method)) {
+                entryPoints.add(node);
+                testMethods++;
+            } else if (!strict && isPublicStaticUtility(method) && !callGraph.hasIncomingCalls(node)) {
+                entryPoints.add(node);
+                publicStaticMethods++;
+            } else if (keepRules != null && keepRules.keeps(method)) {
                 entryPoints.add(node);
-                System.out.println("[Entry Point] Test method: " + node.getNodeId());
+                keptMethods++;
+            }
+            if (method.getMethodName().equals("<init>")) {
+                constructors.add(node);
             }
         }
-    }
 
-    private void findPublicStaticMethods(CallGraph callGraph, Set<GraphNode> entryPoints) {
-        for (GraphNode node : callGraph.getAllNodes()) {
-            MethodInfo method = node.getMethodInfo();
-            if (isPublicStaticUtility(method) && node.getIncomingCalls().isEmpty()) {
-                entryPoints.add(node);
-                System.out.println("[Entry Point] Public static utility: " + node.getNodeId());
+        int frameworkEntries = 0;
+        Set<String> frameworkClasses = new HashSet<>();
+        if (annotationIndex != null) {
+            for (String annotation : annotationIndex.withMetaAnnotated(FRAMEWORK_METHOD_ANNOTATIONS)) {
+                for (MethodInfo method : annotationIndex.getMethodsAnnotatedWith(annotation)) {
+                    GraphNode node = callGraph.getNode(method.getSymbolId());
+                    if (node != null && entryPoints.add(node)) {
+                        frameworkEntries++;
+                    }
+                    if (!method.isStatic()) {
+                        frameworkClasses.add(method.getOwnerClass()); // the framework creates the instance
+                    }
+                }
+            }
+            for (String annotation : annotationIndex.withMetaAnnotated(FRAMEWORK_CLASS_ANNOTATIONS)) {
+                for (ClassInfo classInfo : annotationIndex.getClassesAnnotatedWith(annotation)) {
+                    frameworkClasses.add(classInfo.getClassName());
+                }
             }
         }
-    }
 
-    private void findMainClassConstructors(CallGraph callGraph, Set<GraphNode> entryPoints) {
-        for (GraphNode node : callGraph.getAllNodes()) {
-            MethodInfo method = node.getMethodInfo();
-            if (method.getMethodName().equals("<init>") &&
-                    classesWithMainMethod.contains(method.getOwnerClass())) {
-                entryPoints.add(node);
-                System.out.println("[Entry Point] Constructor of main class: " + node.getNodeId());
+        // Constructors of classes that have main methods or are created by a framework
+        int mainClassConstructors = 0;
+        for (GraphNode node : constructors) {
+            String owner = node.getMethodInfo().getOwnerClass();
+            if (classesWithMainMethod.contains(owner)) {
+                if (entryPoints.add(node)) {
+                    mainClassConstructors++;
+                }
+            } else if (frameworkClasses.contains(owner) && entryPoints.add(node)) {
+                frameworkEntries++;
             }
         }
+
+        System.out.printf("Entry points: %,d (main: %,d, tests: %,d, public static: %,d, "
+                        + "main-class constructors: %,d, keep rules: %,d, framework: %,d, "
+                        + "archive metadata: %,d)%n",
+                entryPoints.size(), mainMethods, testMethods, publicStaticMethods,
+                mainClassConstructors, keptMethods, frameworkEntries, archiveEntries);
+        return entryPoints;
     }
 
     /**
@@ -107,8 +239,34 @@ public class EntryPointResolver {
                 (method.getAccessFlags() & 0x0001) != 0; // ACC_PUBLIC
     }
 
+    /**
+     * The {@code main} method of a manifest main class, or the public no-arg constructor or
+     * static {@code provider()} method that {@link java.util.ServiceLoader} calls on a provider.
+     */
+    private boolean isArchiveEntryPoint(MethodInfo method, Set<String> manifestMainClasses,
+                                        Set<String> providerClasses) {
+        String owner = method.getOwnerClass();
+        String name = method.getMethodName();
+        if (manifestMainClasses.contains(owner)) {
+            return "main".equals(name) && "([Ljava/lang/String;)V".equals(method.getDescriptor()) &&
+                    method.isStatic();
+        }
+        if (providerClasses.contains(owner)) {
+            return ("<init>".equals(name) && "()V".equals(method.getDescriptor()) &&
+                    (method.getAccessFlags() & 0x0001) != 0) || // ACC_PUBLIC
+                    ("provider".equals(name) && method.isStatic() && method.getDescriptor().startsWith("()L"));
+        }
+        return false;
+    }
+
     private boolean isTestMethod(MethodInfo method) {
         String name = method.getMethodName();
+        if (strict) {
+            // Annotated tests come from the annotation index; only JUnit 3 relies on names
+            return name.startsWith("test") && "()V".equals(method.getDescriptor()) &&
+                    !method.isStatic() &&
+                    (method.getAccessFlags() & 0x0001) != 0; // ACC_PUBLIC
+        }
         return name.startsWith("test") ||
                 name.endsWith("Test") ||
                 name.equals("setUp") ||
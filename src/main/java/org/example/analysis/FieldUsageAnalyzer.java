@@ -2,63 +2,228 @@ package org.example.analysis;
 
 import org.example.model.ClassInfo;
 import org.example.model.FieldInfo;
-import org.example.model.InstructionInfo;
+import org.example.model.InstructionList;
 import org.example.model.MethodInfo;
 import java.util.*;
 
+/**
+ * Field read/write analysis on int ids. Every declared field gets a dense index, and field
+ * instructions carry the symbol id of their {@code owner.name:desc} reference. A reference
+ * maps to its field directly or, when it names a subclass or implementing class instead of
+ * the declaring class, through a JVM-style hierarchy lookup that is cached per reference.
+ * Reads and writes are bits in two {@link BitSet}s, so unused and write-only fields fall out
+ * of bitwise operations.
+ */
 public class FieldUsageAnalyzer {
 
+    private final List<FieldInfo> fields = new ArrayList<>();
+    private final Map<String, ClassInfo> classesByName = new HashMap<>();
+    // Reference symbol id -> field index + 1; 0 = not resolved yet, -1 = no analyzed field
+    private int[] fieldsBySymbol = new int[0];
+    private final BitSet read = new BitSet();
+    private final BitSet written = new BitSet();
+    private final BitSet excluded = new BitSet();
+    // Accesses from dead methods, kept apart in liveness-aware runs
+    private final BitSet deadCodeRead = new BitSet();
+    private final BitSet deadCodeWritten = new BitSet();
+
     public Map<String, List<FieldInfo>> findUnusedFields(List<ClassInfo> classes) {
         Map<String, List<FieldInfo>> unusedFieldsByClass = new HashMap<>();
 
-        // First pass: Collect all fields
-        Map<String, FieldInfo> allFields = new HashMap<>();
-        for (ClassInfo classInfo : classes) {
-            for (FieldInfo field : classInfo.getFields()) {
-                allFields.put(field.getFullName(), field);
-            }
+        analyze(classes);
+
+        BitSet unused = getUnusedFields();
+        for (int i = unused.nextSetBit(0); i >= 0; i = unused.nextSetBit(i + 1)) {
+            FieldInfo field = fields.get(i);
+            unusedFieldsByClass.computeIfAbsent(field.getOwnerClass(), k -> new ArrayList<>()).add(field);
         }
 
-        // Second pass: Analyze field usage in methods
+        return unusedFieldsByClass;
+    }
+
+    /**
+     * Indexes the fields of {@code classes}, records the accesses of all their methods and
+     * updates the read/written flags of every {@link FieldInfo}.
+     */
+    public void analyze(List<ClassInfo> classes) {
+        index(classes);
         for (ClassInfo classInfo : classes) {
             for (MethodInfo method : classInfo.getMethods()) {
-                analyzeFieldUsageInMethod(method, allFields);
+                recordFieldAccesses(method);
             }
         }
+        applyFlags();
+    }
+
+    // ── Indexing ───────────────────────────────────────────────────────────────
+
+    /**
+     * Assigns field indices in class and declaration order and clears all recorded accesses.
+     */
+    public void index(List<ClassInfo> classes) {
+        fields.clear();
+        classesByName.clear();
+        read.clear();
+        written.clear();
+        excluded.clear();
+        deadCodeRead.clear();
+        deadCodeWritten.clear();
+        fieldsBySymbol = new int[0];
 
-        // Third pass: Identify unused fields
         for (ClassInfo classInfo : classes) {
-            List<FieldInfo> unusedFields = new ArrayList<>();
+            classesByName.put(classInfo.getClassName(), classInfo);
             for (FieldInfo field : classInfo.getFields()) {
-                if (!field.isUsed() && !shouldExcludeField(field)) {
-                    unusedFields.add(field);
+                int index = fields.size();
+                fields.add(field);
+                if (shouldExcludeField(field)) {
+                    excluded.set(index);
+                }
+                int id = field.getSymbolId();
+                if (id >= 0) {
+                    ensureSymbolCapacity(id);
+                    fieldsBySymbol[id] = index + 1; // a later duplicate declaration wins
                 }
-            }
-            if (!unusedFields.isEmpty()) {
-                unusedFieldsByClass.put(classInfo.getClassName(), unusedFields);
             }
         }
+    }
 
-        return unusedFieldsByClass;
+    public int getFieldCount() {
+        return fields.size();
+    }
+
+    public FieldInfo getField(int index) {
+        return fields.get(index);
+    }
+
+    // ── Accesses ───────────────────────────────────────────────────────────────
+
+    public void recordFieldAccesses(MethodInfo method) {
+        recordFieldAccesses(method, read, written);
     }
 
-    private void analyzeFieldUsageInMethod(MethodInfo method, Map<String, FieldInfo> allFields) {
-        for (InstructionInfo instr : method.getInstructions()) {
-            if (instr.getTargetMethod() != null && instr.getTargetMethod().contains(":")) {
-                String fieldSignature = instr.getTargetMethod();
-                FieldInfo field = allFields.get(fieldSignature);
+    /**
+     * Records the accesses of a method that reachability proved dead. They do not make a
+     * field used, see {@link #getFieldsReadOnlyByDeadCode()}.
+     */
+    public void recordDeadCodeAccesses(MethodInfo method) {
+        recordFieldAccesses(method, deadCodeRead, deadCodeWritten);
+    }
 
-                if (field != null) {
-                    if ("FIELD_READ".equals(instr.getInstructionType())) {
-                        field.setRead(true);
-                    } else if ("FIELD_WRITE".equals(instr.getInstructionType())) {
-                        field.setWritten(true);
-                    }
+    private void recordFieldAccesses(MethodInfo method, BitSet readSet, BitSet writtenSet) {
+        InstructionList instructions = method.getInstructions();
+        for (int i = 0; i < instructions.size(); i++) {
+            byte kind = instructions.getKind(i);
+            if (kind == InstructionList.FIELD_READ || kind == InstructionList.FIELD_WRITE) {
+                int field = resolve(instructions, i);
+                if (field >= 0) {
+                    (kind == InstructionList.FIELD_READ ? readSet : writtenSet).set(field);
                 }
             }
         }
     }
 
+    /**
+     * Field index accessed by instruction {@code i}, or -1 if it is not an analyzed field.
+     */
+    private int resolve(InstructionList instructions, int i) {
+        int id = instructions.getTargetId(i);
+        if (id < 0) {
+            return -1;
+        }
+        ensureSymbolCapacity(id);
+        if (fieldsBySymbol[id] == 0) {
+            FieldInfo field = lookup(instructions.getTargetMethod(i));
+            fieldsBySymbol[id] = field != null && field.getSymbolId() >= 0 ? fieldsBySymbol[field.getSymbolId()] : -1;
+        }
+        return fieldsBySymbol[id] > 0 ? fieldsBySymbol[id] - 1 : -1;
+    }
+
+    /**
+     * Resolves {@code owner.name:desc} like the JVM: the owner's own fields, then its
+     * superinterfaces, then its superclass chain.
+     */
+    private FieldInfo lookup(String reference) {
+        int colon = reference.lastIndexOf(':');
+        int dot = reference.lastIndexOf('.', colon);
+        if (colon < 0 || dot < 0) {
+            return null;
+        }
+        return lookup(reference.substring(0, dot), reference.substring(dot + 1, colon),
+                reference.substring(colon + 1), new HashSet<>());
+    }
+
+    private FieldInfo lookup(String className, String name, String descriptor, Set<String> visited) {
+        ClassInfo classInfo = className != null ? classesByName.get(className) : null;
+        if (classInfo == null || !visited.add(className)) {
+            return null;
+        }
+        for (FieldInfo field : classInfo.getFields()) {
+            if (field.getFieldName().equals(name) && field.getDescriptor().equals(descriptor)) {
+                return field;
+            }
+        }
+        for (String iface : classInfo.getInterfaces()) {
+            FieldInfo field = lookup(iface, name, descriptor, visited);
+            if (field != null) {
+                return field;
+            }
+        }
+        return lookup(classInfo.getSuperName(), name, descriptor, visited);
+    }
+
+    private void ensureSymbolCapacity(int id) {
+        if (id >= fieldsBySymbol.length) {
+            fieldsBySymbol = Arrays.copyOf(fieldsBySymbol, Math.max(id + 1, fieldsBySymbol.length * 2));
+        }
+    }
+
+    /**
+     * Copies the recorded accesses into the read/written flags of the {@link FieldInfo}s.
+     */
+    public void applyFlags() {
+        for (int i = read.nextSetBit(0); i >= 0; i = read.nextSetBit(i + 1)) {
+            fields.get(i).setRead(true);
+        }
+        for (int i = written.nextSetBit(0); i >= 0; i = written.nextSetBit(i + 1)) {
+            fields.get(i).setWritten(true);
+        }
+    }
+
+    // ── Classification ─────────────────────────────────────────────────────────
+
+    /**
+     * Fields that only dead methods read: live code never reads them, so they are unused or
+     * write-only, but an analysis over all methods would have kept them.
+     */
+    public BitSet getFieldsReadOnlyByDeadCode() {
+        BitSet keptAlive = (BitSet) deadCodeRead.clone();
+        keptAlive.andNot(read);
+        keptAlive.andNot(excluded);
+        return keptAlive;
+    }
+
+    /**
+     * Fields that are neither read nor written, without constants and synthetic fields.
+     */
+    public BitSet getUnusedFields() {
+        BitSet unused = new BitSet(fields.size());
+        unused.set(0, fields.size());
+        unused.andNot(read);
+        unused.andNot(written);
+        unused.andNot(excluded);
+        return unused;
+    }
+
+    /**
+     * Fields that are written but never read, without constants and synthetic fields.
+     */
+    public BitSet getWriteOnlyFields() {
+        BitSet writeOnly = (BitSet) written.clone();
+        writeOnly.andNot(read);
+        writeOnly.andNot(excluded);
+        return writeOnly;
+    }
+
     private boolean shouldExcludeField(FieldInfo field) {
         // Exclude fields that shouldn't be flagged as unused
         return field.isFinal() && field.isStatic() ||  // Constants
@@ -0,0 +1,538 @@
+package org.example.analysis;
+
+import org.example.model.ClassInfo;
+import org.example.model.MethodInfo;
+import org.objectweb.asm.Opcodes;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * ProGuard-style keep rules: methods matched by a rule are entry points. Supported subset:
+ *
+ * <pre>
+ * -keep | -keepclassmembers | -keepclasseswithmembers
+ *     [@Annotation] [[!]modifier ...] class|interface|enum|@interface classPattern
+ *     [extends|implements classPattern] [{ member; ... }]
+ *
+ * member: [@Annotation] [[!]modifier ...] (&lt;methods&gt; | * | &lt;init&gt;(args) | returnType namePattern(args))
+ * </pre>
+ *
+ * <p>In class names {@code ?} matches one character, {@code *} any characters except
+ * {@code .} and {@code **} any characters; a bare {@code *} matches every class. In
+ * argument lists {@code ...} matches any arguments, {@code %} any primitive and {@code ***}
+ * (or a bare {@code *}) any type, including {@code void}. {@code -keep} without members
+ * keeps the constructors; {@code -keepclasseswithmembers} applies only to classes that have
+ * every listed member.
+ * Field members and option modifiers ({@code ,allowobfuscation}) are accepted and ignored.
+ * {@code #} starts a comment.
+ *
+ * <p>Class patterns are compiled into a trie over their literal prefix, so {@link #bind}
+ * tests each class only against the rules whose prefix it starts with. Binding resolves
+ * the member specs once per class; {@link #keeps} is then a lookup by owner and name.
+ */
+public class KeepRules {
+
+    private static final Map<String, Integer> MODIFIERS = Map.of(
+            "public", Opcodes.ACC_PUBLIC,
+            "private", Opcodes.ACC_PRIVATE,
+            "protected", Opcodes.ACC_PROTECTED,
+            "static", Opcodes.ACC_STATIC,
+            "final", Opcodes.ACC_FINAL,
+            "synchronized", Opcodes.ACC_SYNCHRONIZED,
+            "native", Opcodes.ACC_NATIVE,
+            "abstract", Opcodes.ACC_ABSTRACT,
+            "synthetic", Opcodes.ACC_SYNTHETIC);
+
+    private static final String ANY_TYPE = "(?:\\[*(?:[ZBCSIJFD]|L[^;]+;)|V)";
+    private static final MemberSpec CONSTRUCTORS = new MemberSpec(null, 0, 0, "<init>", null, null);
+
+    private enum Kind { KEEP, KEEP_CLASS_MEMBERS, KEEP_CLASSES_WITH_MEMBERS }
+
+    private final List<Rule> rules = new ArrayList<>();
+    private final TrieNode root = new TrieNode();
+
+    // Owner class -> member specs of the rules matching it, filled by bind()
+    private Map<String, ClassRules> bound = Collections.emptyMap();
+
+    private KeepRules() {
+    }
+
+    public static KeepRules load(Path file) throws IOException {
+        return parse(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if a rule is malformed or uses an unsupported option
+     */
+    public static KeepRules parse(String text) {
+        KeepRules keepRules = new KeepRules();
+        Tokens tokens = new Tokens(text);
+        while (tokens.hasNext()) {
+            keepRules.add(parseRule(tokens));
+        }
+        return keepRules;
+    }
+
+    public int getRuleCount() {
+        return rules.size();
+    }
+
+    private void add(Rule rule) {
+        rules.add(rule);
+        TrieNode node = root;
+        for (int i = 0; i < rule.classPrefix.length(); i++) {
+            node = node.children.computeIfAbsent(rule.classPrefix.charAt(i), c -> new TrieNode());
+        }
+        node.rules.add(rule);
+    }
+
+    // ── Binding ────────────────────────────────────────────────────────────────
+
+    /**
+     * Matches the class specs against {@code classes}; must be called before {@link #keeps}.
+     */
+    public void bind(List<ClassInfo> classes) {
+        Map<String, ClassInfo> classesByName = new HashMap<>();
+        for (ClassInfo classInfo : classes) {
+            classesByName.put(classInfo.getClassName(), classInfo);
+        }
+
+        bound = new HashMap<>();
+        List<Rule> candidates = new ArrayList<>();
+        for (ClassInfo classInfo : classes) {
+            String className = classInfo.getClassName();
+            candidates.clear();
+            TrieNode node = root;
+            for (int i = 0; node != null; i++) {
+                candidates.addAll(node.rules);
+                node = i < className.length() ? node.children.get(className.charAt(i)) : null;
+            }
+
+            ClassRules classRules = null;
+            for (Rule rule : candidates) {
+                if (!rule.matchesClass(classInfo, classesByName)) {
+                    continue;
+                }
+                if (classRules == null) {
+                    classRules = bound.computeIfAbsent(className, k -> new ClassRules());
+                }
+                if (rule.kind == Kind.KEEP && rule.members.isEmpty()) {
+                    classRules.add(CONSTRUCTORS);
+                }
+                for (MemberSpec member : rule.members) {
+                    classRules.add(member);
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether a bound rule keeps {@code method}.
+     */
+    public boolean keeps(MethodInfo method) {
+        ClassRules classRules = bound.get(method.getOwnerClass());
+        return classRules != null && classRules.matches(method);
+    }
+
+    // ── Parsing ────────────────────────────────────────────────────────────────
+
+    private static Rule parseRule(Tokens tokens) {
+        String option = tokens.next();
+        Kind kind;
+        switch (option) {
+            case "-keep":
+                kind = Kind.KEEP;
+                break;
+            case "-keepclassmembers":
+                kind = Kind.KEEP_CLASS_MEMBERS;
+                break;
+            case "-keepclasseswithmembers":
+                kind = Kind.KEEP_CLASSES_WITH_MEMBERS;
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported keep rule option: " + option);
+        }
+        while (tokens.peekIs(",")) {
+            tokens.next();
+            tokens.next(); // allowshrinking, allowobfuscation, ...
+        }
+
+        Rule rule = new Rule(kind);
+        while (true) {
+            String token = tokens.next();
+            if (token.equals("class") || token.equals("interface") || token.equals("enum")
+                    || token.equals("@interface")) {
+                rule.requiredFlags |= classKindFlag(token);
+                break;
+            } else if (token.startsWith("@")) {
+                rule.annotation = compileGlob(token.substring(1), '.');
+            } else {
+                rule.setModifier(token, option);
+            }
+        }
+
+        String classPattern = tokens.next();
+        rule.classPrefix = literalPrefix(classPattern);
+        rule.classPattern = compileGlob(classPattern, '.');
+
+        if (tokens.peekIs("extends") || tokens.peekIs("implements")) {
+            tokens.next();
+            String superPattern = tokens.next();
+            if (superPattern.startsWith("@")) {
+                superPattern = tokens.next(); // annotations on the supertype are not checked
+            }
+            rule.superPattern = compileGlob(superPattern, '.');
+        }
+
+        if (tokens.peekIs("{")) {
+            tokens.next();
+            while (!tokens.peekIs("}")) {
+                List<String> member = new ArrayList<>();
+                for (String token = tokens.next(); !token.equals(";"); token = tokens.next()) {
+                    member.add(token);
+                }
+                MemberSpec spec = parseMember(member, option);
+                if (spec != null) {
+                    rule.members.add(spec);
+                }
+            }
+            tokens.next();
+        }
+        return rule;
+    }
+
+    /**
+     * Returns null for field members.
+     */
+    private static MemberSpec parseMember(List<String> tokens, String option) {
+        Pattern annotation = null;
+        int[] flags = new int[2];
+        int i = 0;
+        for (; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            if (token.startsWith("@")) {
+                annotation = compileGlob(token.substring(1), '.');
+            } else if (MODIFIERS.containsKey(token.startsWith("!") ? token.substring(1) : token)) {
+                setModifier(flags, token, option);
+            } else {
+                break;
+            }
+        }
+
+        List<String> rest = tokens.subList(i, tokens.size());
+        int paren = rest.indexOf("(");
+        if (paren < 0) {
+            if (rest.size() == 1 && (rest.get(0).equals("*") || rest.get(0).equals("<methods>"))) {
+                return new MemberSpec(annotation, flags[0], flags[1], null, null, null);
+            }
+            return null; // field
+        }
+        if (paren == 0 || paren > 2 || !rest.get(rest.size() - 1).equals(")")) {
+            throw new IllegalArgumentException("Invalid member in keep rule: " + String.join(" ", tokens));
+        }
+
+        String name = rest.get(paren - 1);
+        String returnType = paren == 2 ? rest.get(0) : null;
+        StringBuilder descriptor = new StringBuilder("\\(");
+        List<String> args = rest.subList(paren + 1, rest.size() - 1);
+        if (args.size() == 1 && args.get(0).equals("...")) {
+            descriptor.append(".*");
+        } else {
+            for (String arg : args) {
+                if (!arg.equals(",")) {
+                    descriptor.append(typeRegex(arg));
+                }
+            }
+        }
+        descriptor.append("\\)");
+        if (name.equals("<init>")) {
+            descriptor.append('V');
+        } else {
+            descriptor.append(returnType != null ? typeRegex(returnType) : ANY_TYPE);
+        }
+
+        boolean wildcardName = name.indexOf('*') >= 0 || name.indexOf('?') >= 0;
+        return new MemberSpec(annotation, flags[0], flags[1],
+                wildcardName ? null : name,
+                wildcardName ? compileGlob(name, '\0') : null,
+                Pattern.compile(descriptor.toString()));
+    }
+
+    private static String typeRegex(String type) {
+        StringBuilder regex = new StringBuilder();
+        while (type.endsWith("[]")) {
+            regex.append("\\[");
+            type = type.substring(0, type.length() - 2);
+        }
+        switch (type) {
+            case "boolean": return regex.append('Z').toString();
+            case "byte": return regex.append('B').toString();
+            case "char": return regex.append('C').toString();
+            case "short": return regex.append('S').toString();
+            case "int": return regex.append('I').toString();
+            case "long": return regex.append('J').toString();
+            case "float": return regex.append('F').toString();
+            case "double": return regex.append('D').toString();
+            case "void": return regex.append('V').toString();
+            case "%": return regex.append("[ZBCSIJFD]").toString();
+            case "*":
+            case "***": return regex.append(ANY_TYPE).toString();
+            default:
+                return regex.append('L').append(globRegex(type.replace('.', '/'), '/')).append(';').toString();
+        }
+    }
+
+    private static int classKindFlag(String keyword) {
+        switch (keyword) {
+            case "interface": return Opcodes.ACC_INTERFACE;
+            case "enum": return Opcodes.ACC_ENUM;
+            case "@interface": return Opcodes.ACC_ANNOTATION;
+            default: return 0;
+        }
+    }
+
+    private static void setModifier(int[] flags, String token, String option) {
+        boolean negated = token.startsWith("!");
+        Integer flag = MODIFIERS.get(negated ? token.substring(1) : token);
+        if (flag == null) {
+            throw new IllegalArgumentException("Unexpected token in " + option + " rule: " + token);
+        }
+        flags[negated ? 1 : 0] |= flag;
+    }
+
+    private static String literalPrefix(String glob) {
+        int end = 0;
+        while (end < glob.length() && glob.charAt(end) != '*' && glob.charAt(end) != '?') {
+            end++;
+        }
+        return glob.substring(0, end);
+    }
+
+    /**
+     * @param separator character that {@code *} and {@code ?} do not match, or {@code '\0'}
+     */
+    private static Pattern compileGlob(String glob, char separator) {
+        return Pattern.compile(glob.equals("*") && separator == '.' ? ".*" : globRegex(glob, separator));
+    }
+
+    private static String globRegex(String glob, char separator) {
+        String one = separator == '\0' ? "." : "[^" + Pattern.quote(String.valueOf(separator)) + "]";
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c == '*' && i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+                regex.append(".*");
+                i++;
+            } else if (c == '*') {
+                regex.append(one).append('*');
+            } else if (c == '?') {
+                regex.append(one);
+            } else if (Character.isLetterOrDigit(c)) {
+                regex.append(c);
+            } else {
+                regex.append('\\').append(c);
+            }
+        }
+        return regex.toString();
+    }
+
+    // ── Rule model ─────────────────────────────────────────────────────────────
+
+    private static final class Rule {
+        final Kind kind;
+        Pattern annotation;
+        int requiredFlags;
+        int forbiddenFlags;
+        String classPrefix;
+        Pattern classPattern;
+        Pattern superPattern;
+        final List<MemberSpec> members = new ArrayList<>();
+
+        Rule(Kind kind) {
+            this.kind = kind;
+        }
+
+        void setModifier(String token, String option) {
+            int[] flags = {requiredFlags, forbiddenFlags};
+            KeepRules.setModifier(flags, token, option);
+            requiredFlags = flags[0];
+            forbiddenFlags = flags[1];
+        }
+
+        boolean matchesClass(ClassInfo classInfo, Map<String, ClassInfo> classesByName) {
+            int access = classInfo.getAccessFlags();
+            if ((access & requiredFlags) != requiredFlags || (access & forbiddenFlags) != 0) {
+                return false;
+            }
+            if (!classPattern.matcher(classInfo.getClassName()).matches()) {
+                return false;
+            }
+            if (annotation != null && !anyMatches(annotation, classInfo.getAnnotations())) {
+                return false;
+            }
+            if (superPattern != null && !extendsMatching(classInfo, classesByName)) {
+                return false;
+            }
+            if (kind == Kind.KEEP_CLASSES_WITH_MEMBERS) {
+                for (MemberSpec member : members) {
+                    if (classInfo.getMethods().stream().noneMatch(member::matches)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        private boolean extendsMatching(ClassInfo classInfo, Map<String, ClassInfo> classesByName) {
+            Deque<String> pending = new ArrayDeque<>();
+            Set<String> seen = new HashSet<>();
+            pushSupertypes(classInfo, pending);
+            while (!pending.isEmpty()) {
+                String name = pending.pop();
+                if (!seen.add(name)) {
+                    continue;
+                }
+                if (superPattern.matcher(name).matches()) {
+                    return true;
+                }
+                ClassInfo superClass = classesByName.get(name);
+                if (superClass != null) {
+                    pushSupertypes(superClass, pending);
+                }
+            }
+            return false;
+        }
+
+        private static void pushSupertypes(ClassInfo classInfo, Deque<String> pending) {
+            if (classInfo.getSuperName() != null) {
+                pending.push(classInfo.getSuperName());
+            }
+            pending.addAll(classInfo.getInterfaces());
+        }
+    }
+
+    private static final class MemberSpec {
+        final Pattern annotation;
+        final int requiredFlags;
+        final int forbiddenFlags;
+        final String name;           // exact name, or null for a pattern
+        final Pattern namePattern;   // null with an exact name or for any method
+        final Pattern descriptor;    // null for any descriptor
+
+        MemberSpec(Pattern annotation, int requiredFlags, int forbiddenFlags,
+                   String name, Pattern namePattern, Pattern descriptor) {
+            this.annotation = annotation;
+            this.requiredFlags = requiredFlags;
+            this.forbiddenFlags = forbiddenFlags;
+            this.name = name;
+            this.namePattern = namePattern;
+            this.descriptor = descriptor;
+        }
+
+        boolean matches(MethodInfo method) {
+            int access = method.getAccessFlags();
+            return (access & requiredFlags) == requiredFlags && (access & forbiddenFlags) == 0
+                    && (name == null || name.equals(method.getMethodName()))
+                    && (namePattern == null || namePattern.matcher(method.getMethodName()).matches())
+                    && (descriptor == null || descriptor.matcher(method.getDescriptor()).matches())
+                    && (annotation == null || anyMatches(annotation, method.getAnnotations()));
+        }
+    }
+
+    /**
+     * Member specs bound to one class, indexed by exact method name.
+     */
+    private static final class ClassRules {
+        final Map<String, List<MemberSpec>> byName = new HashMap<>();
+        final List<MemberSpec> wildcards = new ArrayList<>();
+
+        void add(MemberSpec member) {
+            if (member.name != null) {
+                byName.computeIfAbsent(member.name, k -> new ArrayList<>()).add(member);
+            } else {
+                wildcards.add(member);
+            }
+        }
+
+        boolean matches(MethodInfo method) {
+            for (MemberSpec member : byName.getOrDefault(method.getMethodName(), Collections.emptyList())) {
+                if (member.matches(method)) {
+                    return true;
+                }
+            }
+            for (MemberSpec member : wildcards) {
+                if (member.matches(method)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class TrieNode {
+        final Map<Character, TrieNode> children = new HashMap<>();
+        final List<Rule> rules = new ArrayList<>();
+    }
+
+    private static boolean anyMatches(Pattern pattern, List<String> names) {
+        for (String name : names) {
+            if (pattern.matcher(name).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Splits rule text into words and the punctuation {@code { } ; ( ) ,}, dropping comments.
+     */
+    private static final class Tokens {
+        private final List<String> tokens = new ArrayList<>();
+        private int position;
+
+        Tokens(String text) {
+            for (String line : text.split("\\R")) {
+                int comment = line.indexOf('#');
+                if (comment >= 0) {
+                    line = line.substring(0, comment);
+                }
+                int start = -1;
+                for (int i = 0; i <= line.length(); i++) {
+                    char c = i < line.length() ? line.charAt(i) : ' ';
+                    boolean punctuation = "{};(),".indexOf(c) >= 0;
+                    if (Character.isWhitespace(c) || punctuation) {
+                        if (start >= 0) {
+                            tokens.add(line.substring(start, i));
+                            start = -1;
+                        }
+                        if (punctuation) {
+                            tokens.add(String.valueOf(c));
+                        }
+                    } else if (start < 0) {
+                        start = i;
+                    }
+                }
+            }
+        }
+
+        boolean hasNext() {
+            return position < tokens.size();
+        }
+
+        boolean peekIs(String token) {
+            return hasNext() && tokens.get(position).equals(token);
+        }
+
+        String next() {
+            if (!hasNext()) {
+                throw new IllegalArgumentException("Unexpected end of keep rules");
+            }
+            return tokens.get(position++);
+        }
+    }
+}
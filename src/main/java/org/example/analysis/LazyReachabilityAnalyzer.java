@@ -0,0 +1,105 @@
+package org.example.analysis;
+
+import org.example.graph.CallGraph;
+import org.example.graph.ClassHierarchy;
+import org.example.graph.GraphNode;
+import org.example.model.InstructionList;
+import org.example.model.MethodInfo;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Demand-driven reachability for call graphs built from class headers only
+ * ({@link org.example.bytecode.ClassFileScanner#scanHeaders(byte[])}). A method body is
+ * decoded when the worklist first reaches it; its call edges and reflection links are
+ * added to the graph at that moment. Unreached methods are never decoded.
+ */
+public class LazyReachabilityAnalyzer {
+
+    private final ReflectionAnalyzer reflectionAnalyzer;
+    private final ClassHierarchy hierarchy;
+    private Consumer<MethodInfo> reachedMethodListener;
+
+    public LazyReachabilityAnalyzer(ReflectionAnalyzer reflectionAnalyzer) {
+        this(reflectionAnalyzer, null);
+    }
+
+    /**
+     * @param hierarchy if not null, call instructions are expanded with CHA dispatch targets
+     */
+    public LazyReachabilityAnalyzer(ReflectionAnalyzer reflectionAnalyzer, ClassHierarchy hierarchy) {
+        this.reflectionAnalyzer = reflectionAnalyzer;
+        this.hierarchy = hierarchy;
+    }
+
+    /**
+     * Called with every reached method right after its body is decoded.
+     */
+    public void setReachedMethodListener(Consumer<MethodInfo> reachedMethodListener) {
+        this.reachedMethodListener = reachedMethodListener;
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code callGraph} has no edge sets
+     *                                  ({@link CallGraph#hasEdgeSets()})
+     */
+    public Set<GraphNode> findReachableMethods(CallGraph callGraph, Set<GraphNode> entryPoints,
+                                               List<MethodInfo> allMethods) {
+        if (!callGraph.hasEdgeSets()) {
+            throw new IllegalArgumentException("On-demand reachability needs a call graph with edge sets");
+        }
+        Set<GraphNode> visited = new HashSet<>(entryPoints);
+        Deque<GraphNode> worklist = new ArrayDeque<>(entryPoints);
+
+        while (!worklist.isEmpty()) {
+            GraphNode current = worklist.poll();
+            MethodInfo method = current.getMethodInfo();
+            loadBodies(current, worklist);
+            if (reachedMethodListener != null) {
+                reachedMethodListener.accept(method);
+            }
+
+            int caller = method.getSymbolId();
+            InstructionList instructions = method.getInstructions();
+            for (int i = 0; i < instructions.size(); i++) {
+                if (instructions.isMethodCall(i) && instructions.getTargetId(i) >= 0) {
+                    if (hierarchy == null) {
+                        callGraph.addCall(caller, instructions.getTargetId(i));
+                    } else {
+                        for (int target : hierarchy.resolveTargetIds(instructions.getOpcode(i),
+                                instructions.getTargetId(i), instructions.getSymbolTable())) {
+                            callGraph.addCall(caller, target);
+                        }
+                    }
+                }
+            }
+            reflectionAnalyzer.analyzeMethod(method, allMethods, callGraph);
+
+            for (GraphNode callee : current.getOutgoingCalls()) {
+                if (visited.add(callee)) {
+                    worklist.add(callee);
+                }
+            }
+        }
+
+        return visited;
+    }
+
+    /**
+     * Decodes the body of {@code current} together with those of every method still queued,
+     * so each class is passed over once per batch rather than once per reached method. With
+     * a FIFO worklist, every queued method takes part in exactly one batch.
+     */
+    static void loadBodies(GraphNode current, Collection<GraphNode> worklist) {
+        if (current.getMethodInfo().isBodyLoaded()) {
+            return;
+        }
+        List<MethodInfo> batch = new ArrayList<>(worklist.size() + 1);
+        batch.add(current.getMethodInfo());
+        for (GraphNode queued : worklist) {
+            batch.add(queued.getMethodInfo());
+        }
+        MethodInfo.ensureBodiesLoaded(batch);
+    }
+}
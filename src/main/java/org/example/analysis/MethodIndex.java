@@ -0,0 +1,143 @@
+package org.example.analysis;
+
+import org.example.model.MethodInfo;
+import org.example.util.AhoCorasickMatcher;
+
+import java.util.*;
+
+/**
+ * Hash indexes over a method list, built once per analysis: by owner class and by simple
+ * name. Lookups return methods in their original list order, so callers see the same
+ * results a linear scan would produce.
+ */
+public class MethodIndex {
+
+    private final List<MethodInfo> methods;
+
+    private final Map<String, int[]> byClass;
+    private final Map<String, int[]> bySimpleName;
+
+    // Memoized "name contains pattern" lookups, keyed by pattern
+    private final Map<String, List<MethodInfo>> containsCache = new HashMap<>();
+
+    public MethodIndex(List<MethodInfo> methods) {
+        this.methods = methods;
+
+        Map<String, List<Integer>> classPositions = new HashMap<>();
+        Map<String, List<Integer>> namePositions = new HashMap<>();
+        for (int i = 0; i < methods.size(); i++) {
+            MethodInfo method = methods.get(i);
+            classPositions.computeIfAbsent(method.getOwnerClass(), k -> new ArrayList<>()).add(i);
+            namePositions.computeIfAbsent(method.getMethodName(), k -> new ArrayList<>()).add(i);
+        }
+        byClass = toArrays(classPositions);
+        bySimpleName = toArrays(namePositions);
+    }
+
+    public List<MethodInfo> getMethods() {
+        return methods;
+    }
+
+    public List<MethodInfo> findByClass(String className) {
+        return resolve(byClass.get(className));
+    }
+
+    public List<MethodInfo> findBySimpleName(String methodName) {
+        return resolve(bySimpleName.get(methodName));
+    }
+
+    /**
+     * Returns all methods whose simple name contains {@code pattern}. Only the distinct
+     * names are scanned, and the result is memoized per pattern; patterns known in advance
+     * should be passed to {@link #precomputeNameContaining} instead.
+     */
+    public List<MethodInfo> findByNameContaining(String pattern) {
+        return containsCache.computeIfAbsent(pattern, p -> {
+            List<int[]> matches = new ArrayList<>();
+            for (Map.Entry<String, int[]> entry : bySimpleName.entrySet()) {
+                if (entry.getKey().contains(p)) {
+                    matches.add(entry.getValue());
+                }
+            }
+            return resolveMerged(matches);
+        });
+    }
+
+    /**
+     * Answers {@link #findByNameContaining} for a whole batch of patterns in one pass over
+     * the distinct method names, using an Aho-Corasick automaton built over the patterns.
+     */
+    public void precomputeNameContaining(Collection<String> patterns) {
+        List<String> pending = new ArrayList<>();
+        for (String pattern : new LinkedHashSet<>(patterns)) {
+            if (!containsCache.containsKey(pattern)) {
+                pending.add(pattern);
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(pending);
+        List<List<int[]>> matches = new ArrayList<>(pending.size());
+        for (int i = 0; i < pending.size(); i++) {
+            matches.add(new ArrayList<>());
+        }
+
+        // A pattern can occur several times in one name; record each name only once
+        int[] lastNameSeen = new int[pending.size()];
+        Arrays.fill(lastNameSeen, -1);
+        int nameId = 0;
+        for (Map.Entry<String, int[]> entry : bySimpleName.entrySet()) {
+            int currentName = nameId++;
+            int[] positions = entry.getValue();
+            matcher.match(entry.getKey(), patternId -> {
+                if (lastNameSeen[patternId] != currentName) {
+                    lastNameSeen[patternId] = currentName;
+                    matches.get(patternId).add(positions);
+                }
+            });
+        }
+
+        for (int i = 0; i < pending.size(); i++) {
+            containsCache.put(pending.get(i), resolveMerged(matches.get(matcher.getCanonicalId(i))));
+        }
+    }
+
+    // ── Helpers ────────────────────────────────────────────────────────────────
+
+    private List<MethodInfo> resolveMerged(List<int[]> matches) {
+        int total = 0;
+        for (int[] match : matches) {
+            total += match.length;
+        }
+
+        int[] positions = new int[total];
+        int n = 0;
+        for (int[] match : matches) {
+            System.arraycopy(match, 0, positions, n, match.length);
+            n += match.length;
+        }
+        Arrays.sort(positions);
+        return resolve(positions);
+    }
+
+    private List<MethodInfo> resolve(int[] positions) {
+        if (positions == null) {
+            return Collections.emptyList();
+        }
+        List<MethodInfo> result = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            result.add(methods.get(position));
+        }
+        return result;
+    }
+
+    private static Map<String, int[]> toArrays(Map<String, List<Integer>> positions) {
+        Map<String, int[]> arrays = new HashMap<>(positions.size() * 2);
+        for (Map.Entry<String, List<Integer>> entry : positions.entrySet()) {
+            arrays.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+        }
+        return arrays;
+    }
+}
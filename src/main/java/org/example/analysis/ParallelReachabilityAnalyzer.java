@@ -0,0 +1,246 @@
+package org.example.analysis;
+
+import org.example.graph.CompactCallGraph;
+import org.example.util.ForkJoinUtils;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+
+/**
+ * Level-synchronous parallel BFS over a {@link CompactCallGraph}. Each frontier level is
+ * expanded across a fork-join pool with an atomic visited bitmap. When the frontier gets
+ * large the traversal switches to bottom-up expansion (every unvisited method looks for a
+ * caller in the frontier), and back to top-down once the frontier shrinks again
+ * (direction-optimizing BFS, Beamer et al.).
+ */
+public class ParallelReachabilityAnalyzer {
+
+    /** Graphs smaller than this are traversed sequentially; the pool overhead is not worth it. */
+    public static final int PARALLEL_THRESHOLD = 50_000;
+
+    // Switch to bottom-up when frontier edges exceed unexplored edges / ALPHA,
+    // and back to top-down when the frontier holds fewer than nodes / BETA methods
+    private static final int ALPHA = 14;
+    private static final int BETA = 24;
+
+    // Work items per leaf task (frontier entries top-down, nodes bottom-up; multiple of 64)
+    private static final int CHUNK_SIZE = 4096;
+
+    private final int parallelism;
+
+    public ParallelReachabilityAnalyzer(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public BitSet findReachable(CompactCallGraph graph, int[] seeds) {
+        return findReachable(graph, seeds, null);
+    }
+
+    /**
+     * @param onReached if not null, called with every method id as its frontier level is
+     *                  completed. Calls come from the thread coordinating the levels, one at
+     *                  a time, so the consumer need not be thread-safe.
+     */
+    public BitSet findReachable(CompactCallGraph graph, int[] seeds, IntConsumer onReached) {
+        return ForkJoinUtils.invoke(parallelism, () -> traverse(graph, seeds, onReached));
+    }
+
+    private BitSet traverse(CompactCallGraph graph, int[] seeds, IntConsumer onReached) {
+        int nodeCount = graph.size();
+        int[] offsets = graph.getOutgoingOffsets();
+        AtomicLongArray visited = new AtomicLongArray((nodeCount + 63) >>> 6);
+
+        int[] frontier = new int[seeds.length];
+        int frontierSize = 0;
+        for (int seed : seeds) {
+            if (seed >= 0 && tryMark(visited, seed)) {
+                frontier[frontierSize++] = seed;
+            }
+        }
+        frontier = Arrays.copyOf(frontier, frontierSize);
+        notify(frontier, onReached);
+
+        long unexploredEdges = graph.getEdgeCount();
+        boolean bottomUp = false;
+
+        while (frontier.length > 0) {
+            long frontierEdges = 0;
+            for (int node : frontier) {
+                frontierEdges += offsets[node + 1] - offsets[node];
+            }
+            unexploredEdges -= frontierEdges;
+
+            if (!bottomUp && frontierEdges > unexploredEdges / ALPHA) {
+                bottomUp = true;
+            } else if (bottomUp && frontier.length < nodeCount / BETA) {
+                bottomUp = false;
+            }
+
+            frontier = bottomUp
+                    ? new BottomUpStep(graph, visited, toBitmap(frontier, nodeCount), 0, nodeCount).invoke()
+                    : new TopDownStep(graph, visited, frontier, 0, frontier.length).invoke();
+            notify(frontier, onReached);
+        }
+
+        long[] words = new long[visited.length()];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = visited.get(i);
+        }
+        return BitSet.valueOf(words);
+    }
+
+    private static void notify(int[] nodes, IntConsumer onReached) {
+        if (onReached != null) {
+            for (int node : nodes) {
+                onReached.accept(node);
+            }
+        }
+    }
+
+    private static long[] toBitmap(int[] nodes, int nodeCount) {
+        long[] bitmap = new long[(nodeCount + 63) >>> 6];
+        for (int node : nodes) {
+            bitmap[node >>> 6] |= 1L << node;
+        }
+        return bitmap;
+    }
+
+    private static boolean tryMark(AtomicLongArray visited, int node) {
+        int word = node >>> 6;
+        long bit = 1L << node;
+        while (true) {
+            long current = visited.get(word);
+            if ((current & bit) != 0) {
+                return false;
+            }
+            if (visited.compareAndSet(word, current, current | bit)) {
+                return true;
+            }
+        }
+    }
+
+    private static boolean isMarked(AtomicLongArray visited, int node) {
+        return (visited.get(node >>> 6) & (1L << node)) != 0;
+    }
+
+    private static int[] concat(int[] left, int[] right) {
+        if (left.length == 0) return right;
+        if (right.length == 0) return left;
+        int[] merged = Arrays.copyOf(left, left.length + right.length);
+        System.arraycopy(right, 0, merged, left.length, right.length);
+        return merged;
+    }
+
+    /**
+     * Expands {@code frontier[from, to)} along outgoing edges; returns the newly visited callees.
+     */
+    private static class TopDownStep extends RecursiveTask<int[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final CompactCallGraph graph;
+        private final AtomicLongArray visited;
+        private final int[] frontier;
+        private final int from;
+        private final int to;
+
+        TopDownStep(CompactCallGraph graph, AtomicLongArray visited, int[] frontier, int from, int to) {
+            this.graph = graph;
+            this.visited = visited;
+            this.frontier = frontier;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from > CHUNK_SIZE) {
+                int mid = (from + to) >>> 1;
+                TopDownStep left = new TopDownStep(graph, visited, frontier, from, mid);
+                left.fork();
+                int[] right = new TopDownStep(graph, visited, frontier, mid, to).compute();
+                return concat(left.join(), right);
+            }
+
+            int[] offsets = graph.getOutgoingOffsets();
+            int[] targets = graph.getOutgoingTargets();
+            int[] next = new int[16];
+            int size = 0;
+
+            for (int i = from; i < to; i++) {
+                int node = frontier[i];
+                for (int e = offsets[node]; e < offsets[node + 1]; e++) {
+                    int callee = targets[e];
+                    if (!isMarked(visited, callee) && tryMark(visited, callee)) {
+                        if (size == next.length) {
+                            next = Arrays.copyOf(next, size * 2);
+                        }
+                        next[size++] = callee;
+                    }
+                }
+            }
+
+            return Arrays.copyOf(next, size);
+        }
+    }
+
+    /**
+     * Checks every unvisited node in {@code [from, to)} for a caller in the current frontier;
+     * returns the nodes that found one.
+     */
+    private static class BottomUpStep extends RecursiveTask<int[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final CompactCallGraph graph;
+        private final AtomicLongArray visited;
+        private final long[] frontierBits;
+        private final int from;
+        private final int to;
+
+        BottomUpStep(CompactCallGraph graph, AtomicLongArray visited, long[] frontierBits, int from, int to) {
+            this.graph = graph;
+            this.visited = visited;
+            this.frontierBits = frontierBits;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from > CHUNK_SIZE) {
+                // Split on word boundaries so each visited word is written by one task only
+                int mid = ((from + to) >>> 1) & ~63;
+                BottomUpStep left = new BottomUpStep(graph, visited, frontierBits, from, mid);
+                left.fork();
+                int[] right = new BottomUpStep(graph, visited, frontierBits, mid, to).compute();
+                return concat(left.join(), right);
+            }
+
+            int[] offsets = graph.getIncomingOffsets();
+            int[] sources = graph.getIncomingSources();
+            int[] next = new int[16];
+            int size = 0;
+
+            for (int node = from; node < to; node++) {
+                if (isMarked(visited, node)) {
+                    continue;
+                }
+                for (int e = offsets[node]; e < offsets[node + 1]; e++) {
+                    int caller = sources[e];
+                    if ((frontierBits[caller >>> 6] & (1L << caller)) != 0) {
+                        tryMark(visited, node);
+                        if (size == next.length) {
+                            next = Arrays.copyOf(next, size * 2);
+                        }
+                        next[size++] = node;
+                        break;
+                    }
+                }
+            }
+
+            return Arrays.copyOf(next, size);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package org.example.analysis;
+
+import org.example.graph.CallGraph;
+import org.example.graph.ClassHierarchy;
+import org.example.graph.GraphNode;
+import org.example.model.InstructionList;
+import org.example.model.MethodInfo;
+import org.example.util.AccessFlagUtils;
+import org.objectweb.asm.Opcodes;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Rapid type analysis (RTA): reachability in which virtual and interface calls dispatch only
+ * to classes that are instantiated by reachable code. A class becomes instantiated when a
+ * reached method executes {@code NEW} on it, when one of its constructors is reached from
+ * outside a constructor (e.g. a reflection edge), or when an instance method of it is an
+ * entry point.
+ *
+ * <p>Each (receiver type, signature) call site keeps its callers and current targets. When a
+ * new class becomes instantiated, only the call sites on its supertypes are re-expanded, so
+ * dispatch sets grow incrementally instead of being recomputed. Call sites whose receiver type
+ * is unknown to the hierarchy can only reach instantiated classes with unresolved supertypes
+ * (see {@link ClassHierarchy#hasUnresolvedSupertypes(int)}); they are kept under
+ * {@link #UNKNOWN_OWNER}.
+ */
+public class RapidTypeAnalyzer {
+
+    private static final int UNKNOWN_OWNER = -1;
+
+    private final ClassHierarchy hierarchy;
+    private final ReflectionAnalyzer reflectionAnalyzer;
+    private Consumer<MethodInfo> reachedMethodListener;
+
+    private CallGraph callGraph;
+    private List<MethodInfo> allMethods;
+    private Set<GraphNode> visited;
+    private Deque<GraphNode> worklist;
+    private BitSet instantiated;
+    // Receiver class id (or UNKNOWN_OWNER) -> signature -> call site
+    private Map<Integer, Map<String, DispatchSite>> sitesByOwner;
+
+    /**
+     * @param reflectionAnalyzer if not null, reflection calls are linked as methods are
+     *                           reached (for header-only call graphs, see {@link LazyReachabilityAnalyzer})
+     */
+    public RapidTypeAnalyzer(ClassHierarchy hierarchy, ReflectionAnalyzer reflectionAnalyzer) {
+        this.hierarchy = hierarchy;
+        this.reflectionAnalyzer = reflectionAnalyzer;
+    }
+
+    /**
+     * Called with every reached method when the worklist processes it.
+     */
+    public void setReachedMethodListener(Consumer<MethodInfo> reachedMethodListener) {
+        this.reachedMethodListener = reachedMethodListener;
+    }
+
+    /**
+     * Returns the methods reachable from {@code entryPoints}. Resolved virtual call edges
+     * are added to {@code callGraph} as they are discovered.
+     *
+     * @throws IllegalArgumentException if {@code callGraph} has no edge sets
+     *                                  ({@link CallGraph#hasEdgeSets()})
+     */
+    public Set<GraphNode> findReachableMethods(CallGraph callGraph, Set<GraphNode> entryPoints,
+                                               List<MethodInfo> allMethods) {
+        if (!callGraph.hasEdgeSets()) {
+            throw new IllegalArgumentException("Rapid type analysis needs a call graph with edge sets");
+        }
+        this.callGraph = callGraph;
+        this.allMethods = allMethods;
+        this.visited = new HashSet<>();
+        this.worklist = new ArrayDeque<>();
+        this.instantiated = new BitSet(hierarchy.size());
+        this.sitesByOwner = new HashMap<>();
+
+        for (GraphNode entry : entryPoints) {
+            reach(entry);
+            if (!entry.getMethodInfo().isStatic()) {
+                instantiate(entry.getMethodInfo().getOwnerClass());
+            }
+        }
+
+        while (!worklist.isEmpty()) {
+            GraphNode current = worklist.poll();
+            MethodInfo method = current.getMethodInfo();
+            LazyReachabilityAnalyzer.loadBodies(current, worklist);
+            if (reachedMethodListener != null) {
+                reachedMethodListener.accept(method);
+            }
+            if (reflectionAnalyzer != null) {
+                reflectionAnalyzer.analyzeMethod(method, allMethods, callGraph);
+            }
+
+            for (String type : method.getInstantiatedTypes()) {
+                instantiate(type);
+            }
+
+            int caller = method.getSymbolId();
+            InstructionList instructions = method.getInstructions();
+            for (int i = 0; i < instructions.size(); i++) {
+                if (!instructions.isMethodCall(i) || instructions.getTargetId(i) < 0) {
+                    continue;
+                }
+                int opcode = instructions.getOpcode(i);
+                if (opcode == Opcodes.INVOKEVIRTUAL || opcode == Opcodes.INVOKEINTERFACE) {
+                    addVirtualCall(caller, instructions.getTargetId(i), instructions.getTargetMethod(i));
+                } else {
+                    for (int target : hierarchy.resolveTargetIds(opcode, instructions.getTargetId(i),
+                            instructions.getSymbolTable())) {
+                        callGraph.addCall(caller, target);
+                    }
+                }
+            }
+
+            boolean fromConstructor = "<init>".equals(method.getMethodName());
+            for (GraphNode callee : new ArrayList<>(current.getOutgoingCalls())) {
+                if (!fromConstructor && "<init>".equals(callee.getMethodInfo().getMethodName())) {
+                    instantiate(callee.getMethodInfo().getOwnerClass());
+                }
+                reach(callee);
+            }
+        }
+
+        return visited;
+    }
+
+    public int getInstantiatedTypeCount() {
+        return instantiated.cardinality();
+    }
+
+    // ── Dispatch ───────────────────────────────────────────────────────────────
+
+    private void addVirtualCall(int caller, int targetId, String target) {
+        // An abstract declaration has no code, but the call site still uses it
+        GraphNode declared = callGraph.getNode(targetId);
+        if (declared != null && AccessFlagUtils.isAbstract(declared.getMethodInfo().getAccessFlags())) {
+            link(caller, targetId);
+        }
+
+        int paren = target.indexOf('(');
+        int dot = target.lastIndexOf('.', paren);
+        if (paren < 0 || dot < 0) {
+            return;
+        }
+        int ownerId = hierarchy.getClassId(target.substring(0, dot));
+        String signature = target.substring(dot + 1);
+        if (ownerId < 0) {
+            if (!hierarchy.hasUnresolvedSupertypes()) {
+                return; // no analyzed class can be the receiver
+            }
+            ownerId = UNKNOWN_OWNER;
+        }
+
+        Map<String, DispatchSite> sites = sitesByOwner.computeIfAbsent(ownerId, k -> new HashMap<>());
+        DispatchSite site = sites.get(signature);
+        if (site == null) {
+            site = new DispatchSite();
+            sites.put(signature, site);
+            for (int type = instantiated.nextSetBit(0); type >= 0; type = instantiated.nextSetBit(type + 1)) {
+                if (ownerId == UNKNOWN_OWNER ? hierarchy.hasUnresolvedSupertypes(type)
+                        : hierarchy.isSubtypeOf(type, ownerId)) {
+                    MethodInfo resolved = hierarchy.lookup(type, signature);
+                    if (resolved != null) {
+                        site.targets.add(resolved.getSymbolId());
+                    }
+                }
+            }
+        }
+
+        if (site.callers.add(caller)) {
+            for (int resolved : site.targets) {
+                link(caller, resolved);
+            }
+        }
+    }
+
+    private void instantiate(String className) {
+        int classId = hierarchy.getClassId(className);
+        if (classId < 0 || !hierarchy.isConcrete(classId) || instantiated.get(classId)) {
+            return;
+        }
+        instantiated.set(classId);
+
+        // Re-expand only the call sites whose receiver type is a supertype of the new class
+        Map<String, DispatchSite> unknownOwnerSites = hierarchy.hasUnresolvedSupertypes(classId)
+                ? sitesByOwner.get(UNKNOWN_OWNER) : null;
+        for (int superId : hierarchy.getSupertypes(classId)) {
+            Map<String, DispatchSite> sites = sitesByOwner.get(superId);
+            if (sites != null) {
+                for (Map.Entry<String, DispatchSite> entry : sites.entrySet()) {
+                    expand(classId, entry.getKey(), entry.getValue());
+                }
+            }
+            // Sites with an unknown receiver only care about the signatures the class has
+            if (unknownOwnerSites != null) {
+                for (String signature : hierarchy.getDeclaredSignatures(superId)) {
+                    DispatchSite site = unknownOwnerSites.get(signature);
+                    if (site != null) {
+                        expand(classId, signature, site);
+                    }
+                }
+            }
+        }
+    }
+
+    private void expand(int classId, String signature, DispatchSite site) {
+        MethodInfo resolved = hierarchy.lookup(classId, signature);
+        if (resolved == null || !site.targets.add(resolved.getSymbolId())) {
+            return;
+        }
+        for (int caller : site.callers) {
+            link(caller, resolved.getSymbolId());
+        }
+    }
+
+    private void link(int caller, int target) {
+        callGraph.addCall(caller, target);
+        GraphNode node = callGraph.getNode(target);
+        if (node != null) {
+            reach(node);
+        }
+    }
+
+    private void reach(GraphNode node) {
+        if (visited.add(node)) {
+            worklist.add(node);
+        }
+    }
+
+    /**
+     * Virtual call sites sharing one receiver type and signature; callers and targets are
+     * method symbol ids.
+     */
+    private static class DispatchSite {
+        final Set<Integer> callers = new LinkedHashSet<>();
+        final Set<Integer> targets = new LinkedHashSet<>();
+    }
+}
@@ -1,8 +1,10 @@
 package org.example.analysis;
 
 import org.example.graph.CallGraph;
+import org.example.graph.CompactCallGraph;
 import org.example.graph.GraphNode;
 import java.util.*;
+import java.util.function.IntConsumer;
 
 public class ReachabilityAnalyzer {
 
@@ -26,7 +28,63 @@ public class ReachabilityAnalyzer {
         return allNodes;
     }
 
+    /**
+     * Multi-source BFS: all seeds start in one frontier and visited methods are marked in a
+     * single {@link BitSet}, so the cost is O(nodes + edges) regardless of how many entry
+     * points there are. Dead methods are the clear bits of the result.
+     */
+    public BitSet findReachable(CompactCallGraph graph, int[] seeds) {
+        return findReachable(graph, seeds, null);
+    }
+
+    /**
+     * @param onReached if not null, called with every method id when the traversal first
+     *                  marks it
+     */
+    public BitSet findReachable(CompactCallGraph graph, int[] seeds, IntConsumer onReached) {
+        int[] offsets = graph.getOutgoingOffsets();
+        int[] targets = graph.getOutgoingTargets();
+
+        BitSet visited = new BitSet(graph.size());
+        int[] queue = new int[graph.size()];
+        int head = 0;
+        int tail = 0;
+
+        for (int seed : seeds) {
+            if (seed >= 0 && !visited.get(seed)) {
+                visited.set(seed);
+                queue[tail++] = seed;
+                if (onReached != null) {
+                    onReached.accept(seed);
+                }
+            }
+        }
+
+        while (head < tail) {
+            int current = queue[head++];
+            for (int e = offsets[current]; e < offsets[current + 1]; e++) {
+                int callee = targets[e];
+                if (!visited.get(callee)) {
+                    visited.set(callee);
+                    queue[tail++] = callee;
+                    if (onReached != null) {
+                        onReached.accept(callee);
+                    }
+                }
+            }
+        }
+
+        return visited;
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code callGraph} has no edge sets
+     *                                  ({@link CallGraph#hasEdgeSets()})
+     */
     public Map<String, Set<String>> analyzeTransitiveClosure(CallGraph callGraph, GraphNode entryPoint) {
+        if (!callGraph.hasEdgeSets()) {
+            throw new IllegalArgumentException("Transitive closure needs a call graph with edge sets");
+        }
         Map<String, Set<String>> closure = new HashMap<>();
 
         if (entryPoint != null) {
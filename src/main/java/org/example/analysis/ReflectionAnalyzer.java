@@ -3,32 +3,93 @@ package org.example.analysis;
 import org.example.model.MethodInfo;
 import org.example.model.ReflectionCall;
 import org.example.graph.CallGraph;
-import org.example.graph.GraphNode;
 import java.util.*;
+import java.util.regex.Pattern;
 
 public class ReflectionAnalyzer {
 
+    /**
+     * HEURISTIC links every plausible string constant of a reflecting method; DATAFLOW links
+     * only the constants that provably reach the reflection call (see
+     * {@link org.example.bytecode.ReflectionConstantAnalyzer}).
+     */
+    public enum Mode { HEURISTIC, DATAFLOW }
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[a-zA-Z_$][a-zA-Z\\d_$]*");
+    private static final Pattern QUALIFIED_NAME =
+            Pattern.compile("[a-zA-Z_$][a-zA-Z\\d_$]*(\\.[a-zA-Z_$][a-zA-Z\\d_$]*)*");
+    private static final Pattern ALL_CAPS = Pattern.compile("^[A-Z_]+$");
+
+    private final Mode mode;
+
+    // Built on first use for the method list being analyzed
+    private MethodIndex methodIndex;
+    // (caller, target) symbol id pairs linked from resolved reflection calls
+    private final Set<Long> resolvedLinks = new HashSet<>();
+
+    public ReflectionAnalyzer() {
+        this(Mode.HEURISTIC);
+    }
+
+    public ReflectionAnalyzer(Mode mode) {
+        this.mode = mode;
+    }
+
     public void analyzeReflection(List<MethodInfo> methods, CallGraph callGraph) {
-        Map<String, List<ReflectionCall>> reflectionCallsByMethod = new HashMap<>();
+        if (mode == Mode.HEURISTIC) {
+            // Resolve every getMethod name constant of the run in one pass over the method names
+            getMethodIndex(methods).precomputeNameContaining(collectMethodNamePatterns(methods));
+        }
 
-        // Collect all reflection calls
         for (MethodInfo method : methods) {
-            if (!method.getReflectionCalls().isEmpty()) {
-                reflectionCallsByMethod.put(method.getFullName(), method.getReflectionCalls());
+            analyzeMethod(method, methods, callGraph);
+        }
+    }
+
+    /**
+     * Links the reflection calls of a single caller. Used directly by on-demand reachability,
+     * where bodies (and therefore reflection calls) only exist once a method is reached.
+     */
+    public void analyzeMethod(MethodInfo caller, List<MethodInfo> methods, CallGraph callGraph) {
+        if (caller.getReflectionCalls().isEmpty()) {
+            return;
+        }
+
+        MethodIndex index = getMethodIndex(methods);
+        for (ReflectionCall reflection : caller.getReflectionCalls()) {
+            if (mode == Mode.DATAFLOW) {
+                linkResolvedTargets(caller, reflection, callGraph, index);
+            } else {
+                processReflectionCall(caller, reflection, callGraph, index);
             }
         }
+    }
 
-        // Process each reflection call
-        for (Map.Entry<String, List<ReflectionCall>> entry : reflectionCallsByMethod.entrySet()) {
-            String caller = entry.getKey();
-            for (ReflectionCall reflection : entry.getValue()) {
-                processReflectionCall(caller, reflection, callGraph, methods);
+    private MethodIndex getMethodIndex(List<MethodInfo> methods) {
+        if (methodIndex == null || methodIndex.getMethods() != methods) {
+            methodIndex = new MethodIndex(methods);
+        }
+        return methodIndex;
+    }
+
+    private List<String> collectMethodNamePatterns(List<MethodInfo> methods) {
+        List<String> patterns = new ArrayList<>();
+        for (MethodInfo method : methods) {
+            boolean hasGetMethod = method.getReflectionCalls().stream()
+                    .anyMatch(call -> "GET_METHOD".equals(call.getReflectionType()));
+            if (hasGetMethod) {
+                for (String constant : method.getStringConstants()) {
+                    if (isMethodNamePattern(constant)) {
+                        patterns.add(constant);
+                    }
+                }
             }
         }
+        return patterns;
     }
 
-    private void processReflectionCall(String caller, ReflectionCall reflection,
-                                       CallGraph callGraph, List<MethodInfo> methods) {
+    private void processReflectionCall(MethodInfo caller, ReflectionCall reflection,
+                                       CallGraph callGraph, MethodIndex methods) {
         switch (reflection.getReflectionType()) {
             case "CLASS_FOR_NAME":
                 handleClassForName(caller, reflection, callGraph, methods);
@@ -42,123 +103,134 @@ public class ReflectionAnalyzer {
         }
     }
 
-    private void handleClassForName(String caller, ReflectionCall reflection,
-                                    CallGraph callGraph, List<MethodInfo> methods) {
+    private void handleClassForName(MethodInfo caller, ReflectionCall reflection,
+                                    CallGraph callGraph, MethodIndex methods) {
         // Find string constants in the caller method
-        MethodInfo callerMethod = findMethodByFullName(methods, caller);
-        if (callerMethod != null) {
-            for (String constant : callerMethod.getStringConstants()) {
-                // Check if it looks like a class name
-                if (isClassName(constant)) {
-                    // Add all public methods of this class as potential targets
-                    String className = constant.replace("/", ".");
-                    addClassMethodsAsTargets(className, caller, callGraph, methods);
-                }
+        for (String constant : caller.getStringConstants()) {
+            // Check if it looks like a class name
+            if (isClassName(constant)) {
+                // Add all public methods of this class as potential targets
+                String className = constant.replace("/", ".");
+                addClassMethodsAsTargets(className, caller, callGraph, methods);
             }
         }
     }
 
-    private void handleGetMethod(String caller, ReflectionCall reflection,
-                                 CallGraph callGraph, List<MethodInfo> methods) {
-        MethodInfo callerMethod = findMethodByFullName(methods, caller);
-        if (callerMethod != null) {
-            // Look for method name patterns in string constants
-            for (String constant : callerMethod.getStringConstants()) {
-                if (isMethodNamePattern(constant)) {
-                    // Try to find matching methods
-                    findAndLinkMatchingMethods(constant, caller, callGraph, methods);
-                }
+    private void handleGetMethod(MethodInfo caller, ReflectionCall reflection,
+                                 CallGraph callGraph, MethodIndex methods) {
+        // Look for method name patterns in string constants
+        for (String constant : caller.getStringConstants()) {
+            if (isMethodNamePattern(constant)) {
+                // Try to find matching methods
+                findAndLinkMatchingMethods(constant, caller, callGraph, methods);
             }
         }
     }
 
-    private void handleMethodInvoke(String caller, ReflectionCall reflection,
-                                    CallGraph callGraph, List<MethodInfo> methods) {
+    private void handleMethodInvoke(MethodInfo caller, ReflectionCall reflection,
+                                    CallGraph callGraph, MethodIndex methods) {
         // For invoke calls, we need to trace back to getMethod calls
         // This is complex - we'll use a simplified approach
-        MethodInfo callerMethod = findMethodByFullName(methods, caller);
-        if (callerMethod != null) {
-            // Look for patterns like "methodName" or "set" + Something
-            for (String constant : callerMethod.getStringConstants()) {
-                if (constant.matches("[a-zA-Z_$][a-zA-Z\\d_$]*")) {
-                    // Could be a method name
-                    linkPotentialMethods(constant, caller, callGraph, methods);
-                }
+        // Look for patterns like "methodName" or "set" + Something
+        for (String constant : caller.getStringConstants()) {
+            if (IDENTIFIER.matcher(constant).matches()) {
+                // Could be a method name
+                linkPotentialMethods(constant, caller, callGraph, methods);
             }
         }
     }
 
-    private void addClassMethodsAsTargets(String className, String caller,
-                                          CallGraph callGraph, List<MethodInfo> methods) {
-        // Find all methods from this class
-        for (MethodInfo method : methods) {
-            if (method.getOwnerClass().equals(className)) {
-                String target = method.getFullName();
-                GraphNode targetNode = callGraph.getNode(target);
-                GraphNode callerNode = callGraph.getNode(caller);
-
-                if (targetNode != null && callerNode != null) {
-                    // Add reflection-based edge
-                    callGraph.addCall(caller, target);
-                    System.out.println("[Reflection] Added edge: " + caller + " -> " + target);
+    private void linkResolvedTargets(MethodInfo caller, ReflectionCall reflection,
+                                     CallGraph callGraph, MethodIndex methods) {
+        if (callGraph.getNode(caller.getSymbolId()) == null) {
+            return;
+        }
+
+        String className = reflection.getResolvedClassName();
+        String methodName = reflection.getResolvedMethodName();
+
+        if ("CLASS_FOR_NAME".equals(reflection.getReflectionType())) {
+            // Loading runs the static initializer; constructors are kept for newInstance()
+            if (className != null) {
+                for (MethodInfo method : methods.findByClass(className)) {
+                    if (method.getMethodName().equals("<clinit>") || method.getMethodName().equals("<init>")) {
+                        linkResolvedTarget(caller, method, callGraph);
+                    }
+                }
+            }
+        } else if (methodName != null) {
+            List<MethodInfo> candidates = className != null
+                    ? methods.findByClass(className) : methods.findBySimpleName(methodName);
+            for (MethodInfo method : candidates) {
+                if (method.getMethodName().equals(methodName)) {
+                    linkResolvedTarget(caller, method, callGraph);
                 }
             }
         }
     }
 
-    private void findAndLinkMatchingMethods(String methodPattern, String caller,
-                                            CallGraph callGraph, List<MethodInfo> methods) {
-        for (MethodInfo method : methods) {
-            if (method.getMethodName().contains(methodPattern) ||
-                    method.getMethodName().equals(methodPattern)) {
+    private void linkResolvedTarget(MethodInfo caller, MethodInfo method, CallGraph callGraph) {
+        // getMethod and the matching invoke usually resolve to the same target
+        long link = ((long) caller.getSymbolId() << 32) | (method.getSymbolId() & 0xFFFFFFFFL);
+        if (callGraph.getNode(method.getSymbolId()) != null && resolvedLinks.add(link)) {
+            callGraph.addCall(caller.getSymbolId(), method.getSymbolId());
+            System.out.println("[Reflection] Linked: " + caller.getFullName() + " -> " + method.getFullName());
+        }
+    }
 
-                String target = method.getFullName();
-                GraphNode targetNode = callGraph.getNode(target);
-                GraphNode callerNode = callGraph.getNode(caller);
+    private void addClassMethodsAsTargets(String className, MethodInfo caller,
+                                          CallGraph callGraph, MethodIndex methods) {
+        if (callGraph.getNode(caller.getSymbolId()) == null) {
+            return;
+        }
 
-                if (targetNode != null && callerNode != null) {
-                    callGraph.addCall(caller, target);
-                    System.out.println("[Reflection] Linked: " + caller + " -> " + target);
-                }
+        // Find all methods from this class
+        for (MethodInfo method : methods.findByClass(className)) {
+            if (callGraph.getNode(method.getSymbolId()) != null) {
+                // Add reflection-based edge
+                callGraph.addCall(caller.getSymbolId(), method.getSymbolId());
+                System.out.println("[Reflection] Added edge: " + caller.getFullName() + " -> " + method.getFullName());
             }
         }
     }
 
-    private void linkPotentialMethods(String methodName, String caller,
-                                      CallGraph callGraph, List<MethodInfo> methods) {
-        // Simple heuristic: link to methods with same name in any class
-        for (MethodInfo method : methods) {
-            if (method.getMethodName().equals(methodName)) {
-                String target = method.getFullName();
-                GraphNode targetNode = callGraph.getNode(target);
-                GraphNode callerNode = callGraph.getNode(caller);
+    private void findAndLinkMatchingMethods(String methodPattern, MethodInfo caller,
+                                            CallGraph callGraph, MethodIndex methods) {
+        if (callGraph.getNode(caller.getSymbolId()) == null) {
+            return;
+        }
 
-                if (targetNode != null && callerNode != null) {
-                    callGraph.addCall(caller, target);
-                }
+        for (MethodInfo method : methods.findByNameContaining(methodPattern)) {
+            if (callGraph.getNode(method.getSymbolId()) != null) {
+                callGraph.addCall(caller.getSymbolId(), method.getSymbolId());
+                System.out.println("[Reflection] Linked: " + caller.getFullName() + " -> " + method.getFullName());
             }
         }
     }
 
-    private MethodInfo findMethodByFullName(List<MethodInfo> methods, String fullName) {
-        for (MethodInfo method : methods) {
-            if (method.getFullName().equals(fullName)) {
-                return method;
+    private void linkPotentialMethods(String methodName, MethodInfo caller,
+                                      CallGraph callGraph, MethodIndex methods) {
+        if (callGraph.getNode(caller.getSymbolId()) == null) {
+            return;
+        }
+
+        // Simple heuristic: link to methods with same name in any class
+        for (MethodInfo method : methods.findBySimpleName(methodName)) {
+            if (callGraph.getNode(method.getSymbolId()) != null) {
+                callGraph.addCall(caller.getSymbolId(), method.getSymbolId());
             }
         }
-        return null;
     }
 
     private boolean isClassName(String str) {
         // Simple heuristic for class names
-        return str.contains("/") || str.contains(".") &&
-                str.matches("[a-zA-Z_$][a-zA-Z\\d_$]*(\\.[a-zA-Z_$][a-zA-Z\\d_$]*)*");
+        return str.contains("/") || str.contains(".") && QUALIFIED_NAME.matcher(str).matches();
     }
 
     private boolean isMethodNamePattern(String str) {
-        return str.matches("[a-zA-Z_$][a-zA-Z\\d_$]*") &&
+        return IDENTIFIER.matcher(str).matches() &&
                 !str.isEmpty() &&
-                !str.matches("^[A-Z_]+$"); // Not all caps (likely constant)
+                !ALL_CAPS.matcher(str).matches(); // Not all caps (likely constant)
     }
 
     public Map<String, List<String>> getReflectionSummary(List<MethodInfo> methods) {
@@ -0,0 +1,132 @@
+package org.example.bytecode;
+
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns {@code invokedynamic} call sites into the direct calls they stand for:
+ * <ul>
+ *   <li>{@code LambdaMetafactory}: the implementation method of a lambda or method
+ *       reference ({@code lambda$...}, {@code Foo::bar}, {@code Foo::new})</li>
+ *   <li>{@code StringConcatFactory}: {@code toString()} on every object operand</li>
+ * </ul>
+ * One decoder is shared by all methods of a class. Decoded call sites are cached by
+ * bootstrap method, static arguments and call site descriptor, so every bootstrap entry of
+ * the class is decoded once.
+ */
+class BootstrapMethodDecoder {
+
+    private static final String LAMBDA_METAFACTORY = "java/lang/invoke/LambdaMetafactory";
+    private static final String STRING_CONCAT_FACTORY = "java/lang/invoke/StringConcatFactory";
+    private static final String TO_STRING = ".toString()Ljava/lang/String;";
+
+    private static final DynamicCallSite UNKNOWN = new DynamicCallSite(new int[0], new String[0], null);
+
+    private final Map<BootstrapKey, DynamicCallSite> decoded = new ConcurrentHashMap<>();
+
+    DynamicCallSite decode(String descriptor, Handle bootstrapMethod, Object[] bootstrapArguments) {
+        return decoded.computeIfAbsent(new BootstrapKey(descriptor, bootstrapMethod, bootstrapArguments),
+                key -> decodeCallSite(descriptor, bootstrapMethod, bootstrapArguments));
+    }
+
+    private static DynamicCallSite decodeCallSite(String descriptor, Handle bootstrapMethod,
+                                                  Object[] bootstrapArguments) {
+        switch (bootstrapMethod.getOwner()) {
+            case LAMBDA_METAFACTORY:
+                // metafactory and altMetafactory: (samType, implementation, instantiatedType, ...)
+                if (bootstrapArguments.length > 1 && bootstrapArguments[1] instanceof Handle) {
+                    return decodeLambda((Handle) bootstrapArguments[1]);
+                }
+                return UNKNOWN;
+            case STRING_CONCAT_FACTORY:
+                return decodeConcat(descriptor);
+            default:
+                return UNKNOWN;
+        }
+    }
+
+    private static DynamicCallSite decodeLambda(Handle implementation) {
+        String owner = implementation.getOwner().replace("/", ".");
+        String target = owner + "." + implementation.getName() + implementation.getDesc();
+        switch (implementation.getTag()) {
+            case Opcodes.H_INVOKESTATIC:
+                return DynamicCallSite.of(Opcodes.INVOKESTATIC, target, null);
+            case Opcodes.H_INVOKEVIRTUAL:
+                return DynamicCallSite.of(Opcodes.INVOKEVIRTUAL, target, null);
+            case Opcodes.H_INVOKEINTERFACE:
+                return DynamicCallSite.of(Opcodes.INVOKEINTERFACE, target, null);
+            case Opcodes.H_INVOKESPECIAL:
+                return DynamicCallSite.of(Opcodes.INVOKESPECIAL, target, null);
+            case Opcodes.H_NEWINVOKESPECIAL:
+                return DynamicCallSite.of(Opcodes.INVOKESPECIAL, target, owner); // Foo::new
+            default:
+                return UNKNOWN; // field handles
+        }
+    }
+
+    private static DynamicCallSite decodeConcat(String descriptor) {
+        Set<String> targets = new LinkedHashSet<>();
+        for (Type argument : Type.getArgumentTypes(descriptor)) {
+            if (argument.getSort() == Type.OBJECT && !argument.getInternalName().equals("java/lang/String")) {
+                targets.add(argument.getClassName() + TO_STRING);
+            }
+        }
+        int[] opcodes = new int[targets.size()];
+        Arrays.fill(opcodes, Opcodes.INVOKEVIRTUAL);
+        return new DynamicCallSite(opcodes, targets.toArray(new String[0]), null);
+    }
+
+    /**
+     * The direct calls of one decoded call site (parallel arrays of invoke opcode and
+     * {@code owner.name(descriptor)} target), plus the class it instantiates, if any.
+     */
+    static final class DynamicCallSite {
+        final int[] opcodes;
+        final String[] targets;
+        final String instantiatedType;
+
+        DynamicCallSite(int[] opcodes, String[] targets, String instantiatedType) {
+            this.opcodes = opcodes;
+            this.targets = targets;
+            this.instantiatedType = instantiatedType;
+        }
+
+        static DynamicCallSite of(int opcode, String target, String instantiatedType) {
+            return new DynamicCallSite(new int[]{opcode}, new String[]{target}, instantiatedType);
+        }
+    }
+
+    private static final class BootstrapKey {
+        private final String descriptor;
+        private final Handle bootstrapMethod;
+        private final Object[] bootstrapArguments;
+        private final int hash;
+
+        BootstrapKey(String descriptor, Handle bootstrapMethod, Object[] bootstrapArguments) {
+            this.descriptor = descriptor;
+            this.bootstrapMethod = bootstrapMethod;
+            this.bootstrapArguments = bootstrapArguments;
+            this.hash = 31 * (31 * descriptor.hashCode() + bootstrapMethod.hashCode())
+                    + Arrays.hashCode(bootstrapArguments);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof BootstrapKey)) return false;
+            BootstrapKey other = (BootstrapKey) o;
+            return hash == other.hash && descriptor.equals(other.descriptor)
+                    && bootstrapMethod.equals(other.bootstrapMethod)
+                    && Arrays.equals(bootstrapArguments, other.bootstrapArguments);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
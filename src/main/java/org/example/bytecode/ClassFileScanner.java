@@ -0,0 +1,282 @@
+package org.example.bytecode;
+
+import org.example.cache.ClassSummaryCache;
+import org.example.model.ClassInfo;
+import org.example.model.FieldInfo;
+import org.example.model.MethodBodyLoader;
+import org.example.model.MethodInfo;
+import org.example.model.SymbolTable;
+import org.example.util.ForkJoinUtils;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Single-pass class parser. One {@code accept} call produces a complete {@link ClassInfo}
+ * (header, fields, methods, instructions and string constants), so the call graph and
+ * the field analysis can share the same model objects. With
+ * {@link #setResolveReflectionConstants}, classes that make reflection calls get a second,
+ * dataflow pass ({@link ReflectionConstantAnalyzer}).
+ */
+public class ClassFileScanner {
+
+    private ClassSummaryCache summaryCache;
+    private SymbolTable symbolTable = new SymbolTable();
+    private boolean resolveReflectionConstants;
+
+    /**
+     * Enables the persistent summary cache: classes whose bytes were parsed in an earlier
+     * run are loaded from it instead of being re-parsed.
+     */
+    public void setSummaryCache(ClassSummaryCache summaryCache) {
+        this.summaryCache = summaryCache;
+    }
+
+    /**
+     * Enables the dataflow pass that resolves the class and method name constants reaching
+     * each reflection call. Only the dataflow reflection mode reads them.
+     */
+    public void setResolveReflectionConstants(boolean resolveReflectionConstants) {
+        this.resolveReflectionConstants = resolveReflectionConstants;
+    }
+
+    /**
+     * Symbol table that the instruction operands of every parsed class refer to.
+     */
+    public SymbolTable getSymbolTable() {
+        return symbolTable;
+    }
+
+    public void setSymbolTable(SymbolTable symbolTable) {
+        this.symbolTable = symbolTable;
+    }
+
+    /**
+     * Parses all classes, fanning the work out over {@code parallelism} fork-join workers
+     * when it is greater than one. Classes are independent until call edges are added,
+     * so the result (in input order) can be merged into a call graph afterwards.
+     */
+    public List<ClassInfo> scanAll(List<byte[]> classBytesList, int parallelism) {
+        return scanAll(classBytesList, parallelism, false);
+    }
+
+    /**
+     * Same as {@link #scanAll(List, int)}; with {@code lazyBodies} only headers and method
+     * signatures are read (see {@link #scanHeaders(byte[])}).
+     */
+    public List<ClassInfo> scanAll(List<byte[]> classBytesList, int parallelism, boolean lazyBodies) {
+        if (parallelism <= 1 || classBytesList.size() < 2) {
+            List<ClassInfo> classes = new ArrayList<>(classBytesList.size());
+            for (byte[] bytes : classBytesList) {
+                classes.add(scan(bytes, lazyBodies));
+            }
+            return classes;
+        }
+
+        return ForkJoinUtils.invoke(parallelism, () -> classBytesList.parallelStream()
+                .map(bytes -> scan(bytes, lazyBodies))
+                .collect(Collectors.toList()));
+    }
+
+    public ClassInfo scan(byte[] classBytes) {
+        return scan(classBytes, false);
+    }
+
+    /**
+     * Reads only the class header, fields and method signatures. Each method keeps a
+     * {@link MethodBodyLoader} pointing back at the raw class bytes, so its body is decoded
+     * the first time {@link MethodInfo#ensureBodyLoaded()} is called.
+     */
+    public ClassInfo scanHeaders(byte[] classBytes) {
+        return scan(classBytes, true);
+    }
+
+    private ClassInfo scan(byte[] classBytes, boolean lazyBodies) {
+        if (summaryCache == null) {
+            return registerSymbols(parse(classBytes, lazyBodies));
+        }
+
+        String key = ClassSummaryCache.key(classBytes, resolveReflectionConstants);
+        ClassInfo cached = summaryCache.load(key, symbolTable);
+        if (cached != null) {
+            return registerSymbols(cached);
+        }
+
+        ClassInfo classInfo = parse(classBytes, lazyBodies);
+        if (!lazyBodies) {
+            summaryCache.store(key, classInfo); // header-only results are not worth caching
+        }
+        return registerSymbols(classInfo);
+    }
+
+    private ClassInfo parse(byte[] classBytes, boolean lazyBodies) {
+        ClassReader classReader = new ClassReader(classBytes);
+        DeferredClassBody deferredBody = lazyBodies
+                ? new DeferredClassBody(classReader, symbolTable, resolveReflectionConstants) : null;
+        BootstrapMethodDecoder bootstrapDecoder = new BootstrapMethodDecoder();
+        String className = symbolTable.className(classReader.getClassName());
+        ClassInfo classInfo = new ClassInfo(className);
+
+        classReader.accept(new ClassVisitor(Opcodes.ASM9) {
+            @Override
+            public void visit(int version, int access, String name, String signature,
+                              String superName, String[] interfaces) {
+                classInfo.setAccessFlags(access);
+                classInfo.setSuperName(superName != null ? superName.replace("/", ".") : null);
+                classInfo.setInterfaces(toClassNames(interfaces));
+            }
+
+            @Override
+            public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+                classInfo.addAnnotation(annotationClass(descriptor));
+                return null;
+            }
+
+            @Override
+            public FieldVisitor visitField(int access, String name, String descriptor,
+                                           String signature, Object value) {
+                classInfo.addField(new FieldInfo(className, symbolTable.canonical(name),
+                        symbolTable.canonical(descriptor), access));
+                return null;
+            }
+
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String descriptor,
+                                             String signature, String[] exceptions) {
+                MethodInfo methodInfo = new MethodInfo(className, symbolTable.canonical(name),
+                        symbolTable.canonical(descriptor), access);
+                classInfo.addMethod(methodInfo);
+
+                MethodVisitor bodyScanner = null;
+                if (deferredBody != null) {
+                    methodInfo.setBodyLoader(deferredBody);
+                } else {
+                    bodyScanner = new MethodScanner.InstructionScanner(methodInfo, bootstrapDecoder, symbolTable);
+                }
+                return new MethodVisitor(Opcodes.ASM9, bodyScanner) {
+                    @Override
+                    public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+                        methodInfo.addAnnotation(annotationClass(descriptor));
+                        return null;
+                    }
+                };
+            }
+        }, lazyBodies
+                ? ClassReader.SKIP_FRAMES | ClassReader.SKIP_CODE // bodies are decoded on demand
+                : ClassReader.SKIP_FRAMES); // frames are never inspected, so skip expanding them
+
+        if (deferredBody == null && resolveReflectionConstants) {
+            ReflectionConstantAnalyzer.resolve(classReader, classInfo.getMethods());
+        }
+        return classInfo;
+    }
+
+    /**
+     * Assigns every method and field its symbol id, the same id that call and field
+     * instructions use as operand, so analyzers can match them without comparing strings.
+     */
+    private ClassInfo registerSymbols(ClassInfo classInfo) {
+        for (MethodInfo method : classInfo.getMethods()) {
+            method.setSymbolId(symbolTable.intern(method.getFullName()));
+        }
+        for (FieldInfo field : classInfo.getFields()) {
+            field.setSymbolId(symbolTable.intern(field.getFullName()));
+        }
+        return classInfo;
+    }
+
+    // Lcom/example/Ann; -> com.example.Ann
+    private String annotationClass(String descriptor) {
+        return symbolTable.className(descriptor.substring(1, descriptor.length() - 1));
+    }
+
+    static List<String> toClassNames(String[] internalNames) {
+        List<String> names = new ArrayList<>();
+        if (internalNames != null) {
+            for (String internalName : internalNames) {
+                names.add(internalName.replace("/", "."));
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Handle back to the raw bytes of one class, shared by all of its deferred methods.
+     * Each pass over the class decodes every method requested together
+     * ({@link MethodInfo#ensureBodiesLoaded}); the tree for the reflection dataflow pass is
+     * read at most once per class.
+     */
+    private static class DeferredClassBody implements MethodBodyLoader {
+        private final ClassReader classReader;
+        private final SymbolTable symbolTable;
+        private final boolean resolveReflectionConstants;
+        private final BootstrapMethodDecoder bootstrapDecoder = new BootstrapMethodDecoder();
+        private final Set<MethodInfo> decoded = Collections.newSetFromMap(new IdentityHashMap<>());
+        private ClassNode reflectionTree;
+
+        DeferredClassBody(ClassReader classReader, SymbolTable symbolTable, boolean resolveReflectionConstants) {
+            this.classReader = classReader;
+            this.symbolTable = symbolTable;
+            this.resolveReflectionConstants = resolveReflectionConstants;
+        }
+
+        @Override
+        public void loadBody(MethodInfo methodInfo) {
+            loadBodies(List.of(methodInfo));
+        }
+
+        @Override
+        public synchronized void loadBodies(List<MethodInfo> methodInfos) {
+            Map<String, MethodInfo> pending = new HashMap<>();
+            for (MethodInfo methodInfo : methodInfos) {
+                if (decoded.add(methodInfo)) {
+                    pending.put(methodInfo.getMethodName() + methodInfo.getDescriptor(), methodInfo);
+                }
+            }
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            classReader.accept(new ClassVisitor(Opcodes.ASM9) {
+                @Override
+                public MethodVisitor visitMethod(int access, String name, String descriptor,
+                                                 String signature, String[] exceptions) {
+                    MethodInfo methodInfo = pending.get(name + descriptor);
+                    return methodInfo != null
+                            ? new MethodScanner.InstructionScanner(methodInfo, bootstrapDecoder, symbolTable)
+                            : null;
+                }
+            }, ClassReader.SKIP_FRAMES);
+
+            if (resolveReflectionConstants && hasReflectionCalls(pending.values())) {
+                if (reflectionTree == null) {
+                    reflectionTree = ReflectionConstantAnalyzer.readClass(classReader);
+                }
+                ReflectionConstantAnalyzer.resolve(reflectionTree, pending.values());
+            }
+        }
+
+        private static boolean hasReflectionCalls(Collection<MethodInfo> methodInfos) {
+            for (MethodInfo methodInfo : methodInfos) {
+                if (!methodInfo.getReflectionCalls().isEmpty()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
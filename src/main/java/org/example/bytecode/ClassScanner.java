@@ -19,6 +19,8 @@ public class ClassScanner {
             public void visit(int version, int access, String name, String signature,
                               String superName, String[] interfaces) {
                 classInfo.setAccessFlags(access);
+                classInfo.setSuperName(superName != null ? superName.replace("/", ".") : null);
+                classInfo.setInterfaces(ClassFileScanner.toClassNames(interfaces));
                 super.visit(version, access, name, signature, superName, interfaces);
             }
         };
@@ -36,6 +38,8 @@ public class ClassScanner {
             public void visit(int version, int access, String name, String signature,
                               String superName, String[] interfaces) {
                 classInfo.setAccessFlags(access);
+                classInfo.setSuperName(superName != null ? superName.replace("/", ".") : null);
+                classInfo.setInterfaces(ClassFileScanner.toClassNames(interfaces));
                 super.visit(version, access, name, signature, superName, interfaces);
             }
         };
@@ -1,6 +1,7 @@
 package org.example.bytecode;
 
 import org.example.model.MethodInfo;
+import org.example.model.SymbolTable;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.MethodVisitor;
@@ -8,6 +9,15 @@ import org.objectweb.asm.Opcodes;
 
 public class InstructionScanner {
 
+    private final SymbolTable symbols;
+
+    /**
+     * @param symbols symbol table of the analysis {@code methodInfo} belongs to
+     */
+    public InstructionScanner(SymbolTable symbols) {
+        this.symbols = symbols;
+    }
+
     public void scanInstructions(byte[] classBytes, MethodInfo methodInfo) {
         ClassReader classReader = new ClassReader(classBytes);
 
@@ -28,7 +38,7 @@ public class InstructionScanner {
                                     new org.example.model.InstructionInfo(opcode, instructionIndex++);
                             instruction.setInstructionType("METHOD_CALL");
                             instruction.setTargetMethod(owner.replace("/", ".") + "." + name + descriptor);
-                            methodInfo.addInstruction(instruction);
+                            methodInfo.addInstruction(instruction, symbols);
                         }
 
                         @Override
@@ -36,21 +46,21 @@ public class InstructionScanner {
                             org.example.model.InstructionInfo instruction =
                                     new org.example.model.InstructionInfo(opcode, instructionIndex++);
                             instruction.setInstructionType("CONTROL_FLOW");
-                            methodInfo.addInstruction(instruction);
+                            methodInfo.addInstruction(instruction, symbols);
                         }
 
                         @Override
                         public void visitInsn(int opcode) {
                             org.example.model.InstructionInfo instruction =
                                     new org.example.model.InstructionInfo(opcode, instructionIndex++);
-                            methodInfo.addInstruction(instruction);
+                            methodInfo.addInstruction(instruction, symbols);
                         }
 
                         @Override
                         public void visitVarInsn(int opcode, int var) {
                             org.example.model.InstructionInfo instruction =
                                     new org.example.model.InstructionInfo(opcode, instructionIndex++);
-                            methodInfo.addInstruction(instruction);
+                            methodInfo.addInstruction(instruction, symbols);
                         }
                     };
                 }
@@ -2,23 +2,46 @@ package org.example.bytecode;
 
 import org.example.model.ClassInfo;
 import org.example.model.MethodInfo;
-import org.example.model.InstructionInfo;
+import org.example.model.InstructionList;
 import org.example.model.FieldInfo;
 import org.example.model.ReflectionCall;  // Assuming this model class exists
+import org.example.model.SymbolTable;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
 import org.objectweb.asm.Opcodes;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class MethodScanner {
 
+    private final SymbolTable symbols;
+
+    /**
+     * Scans with a private symbol table; only for standalone use, since the operand ids do
+     * not match those of any other analysis.
+     */
+    public MethodScanner() {
+        this(new SymbolTable());
+    }
+
+    /**
+     * @param symbols symbol table of the analysis the scanned methods are added to
+     */
+    public MethodScanner(SymbolTable symbols) {
+        this.symbols = symbols;
+    }
+
     public List<MethodInfo> scanMethods(byte[] classBytes, String className) {
         List<MethodInfo> methods = new ArrayList<>();
         ClassReader classReader = new ClassReader(classBytes);
+        BootstrapMethodDecoder bootstrapDecoder = new BootstrapMethodDecoder();
 
         classReader.accept(new ClassVisitor(Opcodes.ASM9) {
             @Override
@@ -33,7 +56,7 @@ public class MethodScanner {
                 methods.add(methodInfo);
 
                 // Return a MethodVisitor to scan instructions
-                return new InstructionScanner(methodInfo);
+                return new InstructionScanner(methodInfo, bootstrapDecoder, symbols);
             }
         }, ClassReader.EXPAND_FRAMES);
 
@@ -59,51 +82,163 @@ public class MethodScanner {
         return fields;
     }
 
-    // Inner class for scanning instructions within a method
-    private static class InstructionScanner extends MethodVisitor {
+    /**
+     * Returns the reflection call type (CLASS_FOR_NAME, GET_METHOD or METHOD_INVOKE) of a
+     * method call instruction, or null if it is not a tracked reflection API.
+     */
+    static String reflectionType(String owner, String name) {
+        if (owner.equals("java/lang/Class")) {
+            if (name.equals("forName")) {
+                return "CLASS_FOR_NAME";
+            } else if (name.equals("getMethod") || name.equals("getDeclaredMethod")) {
+                return "GET_METHOD";
+            }
+        } else if (owner.equals("java/lang/reflect/Method")) {
+            if (name.equals("invoke")) {
+                return "METHOD_INVOKE";
+            }
+        }
+        return null;
+    }
+
+    // Inner class for scanning instructions within a method (shared with ClassFileScanner)
+    static class InstructionScanner extends MethodVisitor {
         private final MethodInfo methodInfo;
-        private int instructionIndex = 0;
+        private final BootstrapMethodDecoder bootstrapDecoder;
+        private final SymbolTable symbols;
+        private InstructionList instructions;
+
+        // Labels are resolved to instruction indices once the whole body has been visited
+        private Map<Label, Integer> labelIndexes;
+        private List<PendingBranch> pendingBranches;
+        private List<Label[]> pendingHandlers;
 
-        public InstructionScanner(MethodInfo methodInfo) {
+        /**
+         * @param bootstrapDecoder decoder shared by all methods of the class
+         * @param symbols          symbol table of the analysis, for call and field operands
+         */
+        InstructionScanner(MethodInfo methodInfo, BootstrapMethodDecoder bootstrapDecoder, SymbolTable symbols) {
             super(Opcodes.ASM9);
             this.methodInfo = methodInfo;
+            this.bootstrapDecoder = bootstrapDecoder;
+            this.symbols = symbols;
+        }
+
+        @Override
+        public void visitCode() {
+            instructions = new InstructionList(symbols);
+            methodInfo.setInstructions(instructions);
+            labelIndexes = new HashMap<>();
+            pendingBranches = new ArrayList<>();
+            pendingHandlers = new ArrayList<>();
+        }
+
+        @Override
+        public void visitEnd() {
+            if (instructions != null) {
+                resolveLabels();
+                instructions.trimToSize();
+            }
+        }
+
+        private void resolveLabels() {
+            for (PendingBranch branch : pendingBranches) {
+                Integer target = labelIndexes.get(branch.label);
+                if (target == null || target >= instructions.size()) {
+                    continue;
+                }
+                if (branch.primary) {
+                    instructions.setTargetIndex(branch.source, target);
+                } else {
+                    instructions.addBranchTarget(branch.source, target);
+                }
+            }
+            for (Label[] handler : pendingHandlers) {
+                Integer start = labelIndexes.get(handler[0]);
+                Integer end = labelIndexes.get(handler[1]);
+                Integer target = labelIndexes.get(handler[2]);
+                if (start != null && end != null && target != null && target < instructions.size()) {
+                    instructions.addExceptionHandler(start, end, target);
+                }
+            }
+        }
+
+        // ── Control flow ───────────────────────────────────────────────────────
+
+        @Override
+        public void visitLabel(Label label) {
+            labelIndexes.put(label, instructions.size()); // the next instruction
+        }
+
+        @Override
+        public void visitJumpInsn(int opcode, Label label) {
+            pendingBranches.add(new PendingBranch(instructions.size(), label, true));
+            instructions.add(opcode, InstructionList.CONTROL_FLOW, null);
+        }
+
+        @Override
+        public void visitTableSwitchInsn(int min, int max, Label dflt, Label... labels) {
+            addSwitch(Opcodes.TABLESWITCH, dflt, labels);
+        }
+
+        @Override
+        public void visitLookupSwitchInsn(Label dflt, int[] keys, Label[] labels) {
+            addSwitch(Opcodes.LOOKUPSWITCH, dflt, labels);
+        }
+
+        private void addSwitch(int opcode, Label dflt, Label[] labels) {
+            int index = instructions.size();
+            pendingBranches.add(new PendingBranch(index, dflt, true));
+            for (Label label : labels) {
+                pendingBranches.add(new PendingBranch(index, label, false));
+            }
+            instructions.add(opcode, InstructionList.CONTROL_FLOW, null);
+        }
+
+        @Override
+        public void visitTryCatchBlock(Label start, Label end, Label handler, String type) {
+            pendingHandlers.add(new Label[]{start, end, handler});
         }
 
         @Override
         public void visitMethodInsn(int opcode, String owner, String name,
                                     String descriptor, boolean isInterface) {
             // First, detect reflection API calls
-            if (owner.equals("java/lang/Class")) {
-                if (name.equals("forName")) {
-                    trackReflectionCall("CLASS_FOR_NAME", opcode, owner, name, descriptor);
-                    return; // We handled it as reflection
-                } else if (name.equals("getMethod") || name.equals("getDeclaredMethod")) {
-                    trackReflectionCall("GET_METHOD", opcode, owner, name, descriptor);
-                    return;
-                }
-            } else if (owner.equals("java/lang/reflect/Method")) {
-                if (name.equals("invoke")) {
-                    trackReflectionCall("METHOD_INVOKE", opcode, owner, name, descriptor);
-                    return;
-                }
+            String reflectionType = reflectionType(owner, name);
+            if (reflectionType != null) {
+                trackReflectionCall(reflectionType, opcode, owner, name, descriptor);
+                return; // We handled it as reflection
             }
 
             // Normal method call tracking (non-reflection)
-            InstructionInfo instruction = new InstructionInfo(opcode, instructionIndex++);
-            instruction.setInstructionType("METHOD_CALL");
-            instruction.setTargetMethod(owner.replace("/", ".") + "." + name + descriptor);
-            methodInfo.addInstruction(instruction);
+            instructions.addInterned(opcode, InstructionList.METHOD_CALL, symbols.methodRef(owner, name, descriptor));
+        }
+
+        // Lambdas, method references and string concatenation become direct call edges.
+        // Every decoded call is one instruction with the invoke opcode of its target.
+        @Override
+        public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle,
+                                           Object... bootstrapMethodArguments) {
+            BootstrapMethodDecoder.DynamicCallSite callSite =
+                    bootstrapDecoder.decode(descriptor, bootstrapMethodHandle, bootstrapMethodArguments);
+            if (callSite.targets.length == 0) {
+                instructions.add(Opcodes.INVOKEDYNAMIC, InstructionList.OTHER, null);
+            }
+            for (int i = 0; i < callSite.targets.length; i++) {
+                instructions.add(callSite.opcodes[i], InstructionList.METHOD_CALL, callSite.targets[i]);
+            }
+            if (callSite.instantiatedType != null &&
+                    !methodInfo.getInstantiatedTypes().contains(callSite.instantiatedType)) {
+                methodInfo.addInstantiatedType(callSite.instantiatedType);
+            }
         }
 
         private void trackReflectionCall(String type, int opcode, String owner, String name, String descriptor) {
-            InstructionInfo instruction = new InstructionInfo(opcode, instructionIndex++);
-            instruction.setInstructionType("REFLECTION_CALL");
-            instruction.setTargetMethod(owner.replace("/", ".") + "." + name + descriptor);
-            methodInfo.addInstruction(instruction);
+            instructions.addInterned(opcode, InstructionList.REFLECTION_CALL, symbols.methodRef(owner, name, descriptor));
 
             // Also store as structured reflection metadata
             ReflectionCall reflectionCall = new ReflectionCall(
-                    owner.replace("/", "."),
+                    symbols.className(owner),
                     name,
                     descriptor,
                     type
@@ -112,44 +247,62 @@ public class MethodScanner {
         }
 
         @Override
-        public void visitJumpInsn(int opcode, org.objectweb.asm.Label label) {
-            InstructionInfo instruction = new InstructionInfo(opcode, instructionIndex++);
-            instruction.setInstructionType("CONTROL_FLOW");
-            methodInfo.addInstruction(instruction);
+        public void visitInsn(int opcode) {
+            instructions.add(opcode, InstructionList.OTHER, null);
         }
 
         @Override
-        public void visitInsn(int opcode) {
-            InstructionInfo instruction = new InstructionInfo(opcode, instructionIndex++);
-            methodInfo.addInstruction(instruction);
+        public void visitVarInsn(int opcode, int var) {
+            instructions.add(opcode, InstructionList.OTHER, null);
         }
 
         @Override
-        public void visitVarInsn(int opcode, int var) {
-            InstructionInfo instruction = new InstructionInfo(opcode, instructionIndex++);
-            methodInfo.addInstruction(instruction);
+        public void visitIntInsn(int opcode, int operand) {
+            instructions.add(opcode, InstructionList.OTHER, null);
         }
 
         @Override
-        public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
-            InstructionInfo instruction = new InstructionInfo(opcode, instructionIndex++);
+        public void visitIincInsn(int var, int increment) {
+            instructions.add(Opcodes.IINC, InstructionList.OTHER, null);
+        }
 
+        @Override
+        public void visitMultiANewArrayInsn(String descriptor, int numDimensions) {
+            instructions.add(Opcodes.MULTIANEWARRAY, InstructionList.OTHER, null);
+        }
+
+        @Override
+        public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
             // Track field operations
+            byte kind;
             if (opcode == Opcodes.GETFIELD || opcode == Opcodes.GETSTATIC) {
-                instruction.setInstructionType("FIELD_READ");
+                kind = InstructionList.FIELD_READ;
             } else if (opcode == Opcodes.PUTFIELD || opcode == Opcodes.PUTSTATIC) {
-                instruction.setInstructionType("FIELD_WRITE");
+                kind = InstructionList.FIELD_WRITE;
             } else {
-                instruction.setInstructionType("FIELD_ACCESS");
+                kind = InstructionList.FIELD_ACCESS;
             }
 
-            instruction.setTargetMethod(owner.replace("/", ".") + "." + name + ":" + descriptor);
-            methodInfo.addInstruction(instruction);
+            instructions.addInterned(opcode, kind, symbols.fieldRef(owner, name, descriptor));
+        }
+
+        // Also records instantiated classes (rapid type analysis)
+        @Override
+        public void visitTypeInsn(int opcode, String type) {
+            instructions.add(opcode, InstructionList.OTHER, null);
+            if (opcode == Opcodes.NEW) {
+                String className = symbols.className(type);
+                if (!methodInfo.getInstantiatedTypes().contains(className)) {
+                    methodInfo.addInstantiatedType(className);
+                }
+            }
+            super.visitTypeInsn(opcode, type);
         }
 
         // Capture string constants (useful for reflection class/method names)
         @Override
         public void visitLdcInsn(Object value) {
+            instructions.add(Opcodes.LDC, InstructionList.OTHER, null);
             if (value instanceof String) {
                 String stringConst = (String) value;
                 methodInfo.addStringConstant(stringConst);
@@ -157,4 +310,16 @@ public class MethodScanner {
             super.visitLdcInsn(value);
         }
     }
-}
\ No newline at end of file
+
+    private static final class PendingBranch {
+        final int source;
+        final Label label;
+        final boolean primary; // jump or switch default, as opposed to a switch case
+
+        PendingBranch(int source, Label label, boolean primary) {
+            this.source = source;
+            this.label = label;
+            this.primary = primary;
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package org.example.bytecode;
+
+import org.example.model.MethodInfo;
+import org.example.model.ReflectionCall;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.*;
+import org.objectweb.asm.tree.analysis.*;
+
+import java.util.*;
+
+/**
+ * Intraprocedural constant propagation for reflection call sites. For every method that
+ * makes reflection calls, ASM's {@link Analyzer} tracks string constants, class literals,
+ * {@code Class.forName} results and {@code getMethod} results through locals and the
+ * operand stack. The arguments that provably reach a call are stored on its
+ * {@link ReflectionCall} as the resolved class and method name.
+ */
+public class ReflectionConstantAnalyzer {
+
+    /**
+     * Resolves the reflection calls of the given methods of the class in {@code classReader}.
+     * Methods without reflection calls are skipped; if none has any, the class is not re-read.
+     */
+    public static void resolve(ClassReader classReader, List<MethodInfo> methods) {
+        Map<String, MethodInfo> pending = reflectingMethods(methods);
+        if (!pending.isEmpty()) {
+            resolve(readClass(classReader), pending);
+        }
+    }
+
+    /**
+     * Same as {@link #resolve(ClassReader, List)} on an already read class, so a class whose
+     * methods are resolved in several batches is only read into a tree once.
+     */
+    static void resolve(ClassNode classNode, Collection<MethodInfo> methods) {
+        resolve(classNode, reflectingMethods(methods));
+    }
+
+    static ClassNode readClass(ClassReader classReader) {
+        ClassNode classNode = new ClassNode();
+        classReader.accept(classNode, ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+        return classNode;
+    }
+
+    // Name + descriptor -> method, for the methods that make reflection calls
+    private static Map<String, MethodInfo> reflectingMethods(Collection<MethodInfo> methods) {
+        Map<String, MethodInfo> pending = new HashMap<>();
+        for (MethodInfo method : methods) {
+            if (!method.getReflectionCalls().isEmpty()) {
+                pending.put(method.getMethodName() + method.getDescriptor(), method);
+            }
+        }
+        return pending;
+    }
+
+    private static void resolve(ClassNode classNode, Map<String, MethodInfo> pending) {
+        for (MethodNode methodNode : classNode.methods) {
+            MethodInfo method = pending.get(methodNode.name + methodNode.desc);
+            if (method != null) {
+                resolveMethod(classNode.name, methodNode, method.getReflectionCalls());
+            }
+        }
+    }
+
+    private static void resolveMethod(String owner, MethodNode methodNode, List<ReflectionCall> calls) {
+        Frame<ConstantValue>[] frames;
+        try {
+            frames = new Analyzer<>(new ConstantInterpreter()).analyze(owner, methodNode);
+        } catch (AnalyzerException e) {
+            return; // leave the calls unresolved
+        }
+
+        // Reflection calls were recorded in instruction order, one per matching call site
+        int callIndex = 0;
+        AbstractInsnNode[] instructions = methodNode.instructions.toArray();
+        for (int i = 0; i < instructions.length && callIndex < calls.size(); i++) {
+            if (!(instructions[i] instanceof MethodInsnNode)) {
+                continue;
+            }
+            MethodInsnNode insn = (MethodInsnNode) instructions[i];
+            String type = MethodScanner.reflectionType(insn.owner, insn.name);
+            if (type == null) {
+                continue;
+            }
+
+            ReflectionCall call = calls.get(callIndex++);
+            Frame<ConstantValue> frame = frames[i];
+            if (frame != null) {
+                resolveCall(call, type, insn, frame);
+            }
+        }
+    }
+
+    private static void resolveCall(ReflectionCall call, String type, MethodInsnNode insn,
+                                    Frame<ConstantValue> frame) {
+        int argCount = Type.getArgumentTypes(insn.desc).length;
+        int firstArg = frame.getStackSize() - argCount;
+        ConstantValue receiver = insn.getOpcode() == Opcodes.INVOKESTATIC ? null : frame.getStack(firstArg - 1);
+
+        switch (type) {
+            case "CLASS_FOR_NAME": {
+                call.setResolvedClassName(frame.getStack(firstArg).string);
+                break;
+            }
+            case "GET_METHOD": {
+                call.setResolvedClassName(receiver.className);
+                call.setResolvedMethodName(frame.getStack(firstArg).string);
+                break;
+            }
+            case "METHOD_INVOKE": {
+                call.setResolvedClassName(receiver.className);
+                call.setResolvedMethodName(receiver.methodName);
+                break;
+            }
+        }
+    }
+
+    // ── Abstract values ────────────────────────────────────────────────────────
+
+    /**
+     * Abstract stack/local value: its size plus whichever constant facts are known. A
+     * string constant has {@code string}; a Class object has {@code className}; a Method
+     * object has {@code methodName} (and {@code className} if its class is known).
+     */
+    static final class ConstantValue implements Value {
+        static final ConstantValue UNKNOWN_1 = new ConstantValue(1, null, null, null);
+        static final ConstantValue UNKNOWN_2 = new ConstantValue(2, null, null, null);
+
+        final int size;
+        final String string;
+        final String className;
+        final String methodName;
+
+        private ConstantValue(int size, String string, String className, String methodName) {
+            this.size = size;
+            this.string = string;
+            this.className = className;
+            this.methodName = methodName;
+        }
+
+        static ConstantValue unknown(int size) {
+            return size == 2 ? UNKNOWN_2 : UNKNOWN_1;
+        }
+
+        static ConstantValue ofString(String value) {
+            return new ConstantValue(1, value, null, null);
+        }
+
+        static ConstantValue ofClass(String className) {
+            return className == null ? UNKNOWN_1 : new ConstantValue(1, null, className, null);
+        }
+
+        static ConstantValue ofMethod(String className, String methodName) {
+            return methodName == null ? UNKNOWN_1 : new ConstantValue(1, null, className, methodName);
+        }
+
+        @Override
+        public int getSize() {
+            return size;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ConstantValue)) return false;
+            ConstantValue other = (ConstantValue) o;
+            return size == other.size && Objects.equals(string, other.string)
+                    && Objects.equals(className, other.className)
+                    && Objects.equals(methodName, other.methodName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(size, string, className, methodName);
+        }
+    }
+
+    /**
+     * Propagates constants through copies, keeps them across control-flow merges only when
+     * both sides agree, and models the three reflection APIs; everything else is unknown.
+     */
+    static final class ConstantInterpreter extends Interpreter<ConstantValue> {
+
+        ConstantInterpreter() {
+            super(Opcodes.ASM9);
+        }
+
+        @Override
+        public ConstantValue newValue(Type type) {
+            if (type == Type.VOID_TYPE) {
+                return null;
+            }
+            return ConstantValue.unknown(type == null ? 1 : type.getSize());
+        }
+
+        @Override
+        public ConstantValue newOperation(AbstractInsnNode insn) {
+            switch (insn.getOpcode()) {
+                case Opcodes.LCONST_0:
+                case Opcodes.LCONST_1:
+                case Opcodes.DCONST_0:
+                case Opcodes.DCONST_1:
+                    return ConstantValue.UNKNOWN_2;
+                case Opcodes.LDC: {
+                    Object cst = ((LdcInsnNode) insn).cst;
+                    if (cst instanceof String) {
+                        return ConstantValue.ofString((String) cst);
+                    }
+                    if (cst instanceof Type && ((Type) cst).getSort() == Type.OBJECT) {
+                        return ConstantValue.ofClass(((Type) cst).getClassName());
+                    }
+                    return ConstantValue.unknown(cst instanceof Long || cst instanceof Double ? 2 : 1);
+                }
+                case Opcodes.GETSTATIC:
+                    return ConstantValue.unknown(Type.getType(((FieldInsnNode) insn).desc).getSize());
+                default:
+                    return ConstantValue.UNKNOWN_1;
+            }
+        }
+
+        @Override
+        public ConstantValue copyOperation(AbstractInsnNode insn, ConstantValue value) {
+            return value;
+        }
+
+        @Override
+        public ConstantValue unaryOperation(AbstractInsnNode insn, ConstantValue value) {
+            switch (insn.getOpcode()) {
+                case Opcodes.LNEG:
+                case Opcodes.DNEG:
+                case Opcodes.I2L:
+                case Opcodes.I2D:
+                case Opcodes.L2D:
+                case Opcodes.F2L:
+                case Opcodes.F2D:
+                case Opcodes.D2L:
+                    return ConstantValue.UNKNOWN_2;
+                case Opcodes.GETFIELD:
+                    return ConstantValue.unknown(Type.getType(((FieldInsnNode) insn).desc).getSize());
+                case Opcodes.CHECKCAST:
+                    return value;
+                default:
+                    return ConstantValue.UNKNOWN_1;
+            }
+        }
+
+        @Override
+        public ConstantValue binaryOperation(AbstractInsnNode insn, ConstantValue value1,
+                                             ConstantValue value2) {
+            switch (insn.getOpcode()) {
+                case Opcodes.LALOAD:
+                case Opcodes.DALOAD:
+                case Opcodes.LADD:
+                case Opcodes.DADD:
+                case Opcodes.LSUB:
+                case Opcodes.DSUB:
+                case Opcodes.LMUL:
+                case Opcodes.DMUL:
+                case Opcodes.LDIV:
+                case Opcodes.DDIV:
+                case Opcodes.LREM:
+                case Opcodes.DREM:
+                case Opcodes.LSHL:
+                case Opcodes.LSHR:
+                case Opcodes.LUSHR:
+                case Opcodes.LAND:
+                case Opcodes.LOR:
+                case Opcodes.LXOR:
+                    return ConstantValue.UNKNOWN_2;
+                default:
+                    return ConstantValue.UNKNOWN_1;
+            }
+        }
+
+        @Override
+        public ConstantValue ternaryOperation(AbstractInsnNode insn, ConstantValue value1,
+                                              ConstantValue value2, ConstantValue value3) {
+            return ConstantValue.UNKNOWN_1;
+        }
+
+        @Override
+        public ConstantValue naryOperation(AbstractInsnNode insn, List<? extends ConstantValue> values) {
+            if (insn instanceof MethodInsnNode) {
+                MethodInsnNode methodInsn = (MethodInsnNode) insn;
+                String type = MethodScanner.reflectionType(methodInsn.owner, methodInsn.name);
+                if ("CLASS_FOR_NAME".equals(type)) {
+                    return ConstantValue.ofClass(values.get(0).string);
+                }
+                if ("GET_METHOD".equals(type)) {
+                    return ConstantValue.ofMethod(values.get(0).className, values.get(1).string);
+                }
+                return newValue(Type.getReturnType(methodInsn.desc));
+            }
+            if (insn instanceof InvokeDynamicInsnNode) {
+                return newValue(Type.getReturnType(((InvokeDynamicInsnNode) insn).desc));
+            }
+            return ConstantValue.UNKNOWN_1; // MULTIANEWARRAY
+        }
+
+        @Override
+        public void returnOperation(AbstractInsnNode insn, ConstantValue value, ConstantValue expected) {
+        }
+
+        @Override
+        public ConstantValue merge(ConstantValue value1, ConstantValue value2) {
+            return value1.equals(value2) ? value1 : ConstantValue.unknown(value1.size);
+        }
+    }
+}
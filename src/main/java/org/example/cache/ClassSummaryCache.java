@@ -0,0 +1,257 @@
+package org.example.cache;
+
+import org.example.model.ClassInfo;
+import org.example.model.SymbolTable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Persistent, content-addressed cache of parsed class summaries. Entries are keyed by the
+ * SHA-256 of the class file bytes, so an unchanged class (e.g. from the same dependency
+ * jar) is loaded from disk instead of being re-parsed. The total size on disk is bounded;
+ * least recently used entries are evicted first (recency survives restarts through the
+ * file modification time, which is refreshed on every hit). There is one instance per
+ * directory in a process ({@link #open}), so concurrent analyses share the index and the
+ * size bound.
+ */
+public class ClassSummaryCache {
+
+    public static final long DEFAULT_MAX_BYTES = 512L * 1024 * 1024;
+
+    private static final String SUFFIX = ".bin";
+
+    // Normalized directory -> its cache
+    private static final Map<Path, ClassSummaryCache> OPEN_CACHES = new ConcurrentHashMap<>();
+
+    private final Path directory;
+    private final long maxBytes;
+
+    // Key -> entry size, in access order (eldest = least recently used)
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+
+    private ClassSummaryCache(Path directory, long maxBytes) throws IOException {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        Files.createDirectories(directory);
+        loadIndex();
+    }
+
+    /**
+     * Returns the cache of {@code directory}, opening it on first use. Later callers get the
+     * same instance; the {@code maxBytes} of the first one applies.
+     */
+    public static ClassSummaryCache open(Path directory, long maxBytes) throws IOException {
+        Path key = directory.toAbsolutePath().normalize();
+        ClassSummaryCache cache = OPEN_CACHES.get(key);
+        if (cache != null) {
+            return cache;
+        }
+        synchronized (OPEN_CACHES) {
+            cache = OPEN_CACHES.get(key);
+            if (cache == null) {
+                cache = new ClassSummaryCache(key, maxBytes);
+                OPEN_CACHES.put(key, cache);
+            }
+            return cache;
+        }
+    }
+
+    /**
+     * @param reflectionConstants whether the summary carries the dataflow-resolved reflection
+     *                            targets; those summaries are cached under a different key
+     */
+    public static String key(byte[] classBytes, boolean reflectionConstants) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            sha256.update(classBytes);
+            if (reflectionConstants) {
+                sha256.update((byte) 1);
+            }
+            byte[] digest = sha256.digest();
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Returns the cached summary for the given key, or null on a miss (including entries
+     * that are unreadable or were written by an older format version). Instruction operands
+     * are interned into {@code symbols}.
+     */
+    public ClassInfo load(String key, SymbolTable symbols) {
+        synchronized (this) {
+            if (entries.get(key) == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+        }
+
+        Path file = pathFor(key);
+        boolean damaged = false;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            ClassInfo classInfo = ClassSummaryCodec.read(new DataInputStream(in), symbols);
+            if (classInfo != null) {
+                Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+                hits.incrementAndGet();
+                return classInfo;
+            }
+        } catch (NoSuchFileException e) {
+            // Evicted by another process; fall through to a miss
+        } catch (IOException | RuntimeException e) {
+            // Damaged entries can fail decoding with e.g. an index or array size out of range
+            System.err.println("Ignoring unreadable cache entry: " + file + " - " + e);
+            damaged = true;
+        }
+
+        remove(key);
+        if (damaged) {
+            deleteQuietly(file);
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    public void store(String key, ClassInfo classInfo) {
+        Path file = pathFor(key);
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), key, ".tmp");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                ClassSummaryCodec.write(classInfo, new DataOutputStream(out));
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            long size = Files.size(file);
+            synchronized (this) {
+                Long previous = entries.put(key, size);
+                totalBytes += size - (previous != null ? previous : 0);
+            }
+            evictIfNeeded();
+        } catch (IOException e) {
+            System.err.println("Failed to write cache entry: " + file + " - " + e.getMessage());
+        }
+    }
+
+    public int getHits() {
+        return hits.get();
+    }
+
+    public int getMisses() {
+        return misses.get();
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    // ── Helpers ────────────────────────────────────────────────────────────────
+
+    private Path pathFor(String key) {
+        return directory.resolve(key.substring(0, 2)).resolve(key + SUFFIX);
+    }
+
+    private void loadIndex() throws IOException {
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(directory, 2)) {
+            files = paths.filter(path -> path.getFileName().toString().endsWith(SUFFIX)).toList();
+        }
+
+        // Oldest first, so the access-ordered map starts in LRU order
+        List<DiskEntry> diskEntries = new ArrayList<>();
+        for (Path file : files) {
+            try {
+                diskEntries.add(new DiskEntry(file, Files.getLastModifiedTime(file).toMillis(), Files.size(file)));
+            } catch (IOException e) {
+                // Concurrently removed; skip
+            }
+        }
+        diskEntries.sort(Comparator.comparingLong(entry -> entry.lastModified));
+
+        for (DiskEntry entry : diskEntries) {
+            String name = entry.file.getFileName().toString();
+            entries.put(name.substring(0, name.length() - SUFFIX.length()), entry.size);
+            totalBytes += entry.size;
+        }
+
+        evictIfNeeded();
+    }
+
+    private void evictIfNeeded() {
+        List<String> evicted = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator();
+            while (totalBytes > maxBytes && it.hasNext()) {
+                Map.Entry<String, Long> eldest = it.next();
+                totalBytes -= eldest.getValue();
+                evicted.add(eldest.getKey());
+                it.remove();
+            }
+        }
+
+        for (String key : evicted) {
+            try {
+                Files.deleteIfExists(pathFor(key));
+            } catch (IOException e) {
+                System.err.println("Failed to evict cache entry: " + key + " - " + e.getMessage());
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("Failed to delete cache entry: " + file + " - " + e.getMessage());
+        }
+    }
+
+    private synchronized void remove(String key) {
+        Long size = entries.remove(key);
+        if (size != null) {
+            totalBytes -= size;
+        }
+    }
+
+    private static class DiskEntry {
+        final Path file;
+        final long lastModified;
+        final long size;
+
+        DiskEntry(Path file, long lastModified, long size) {
+            this.file = file;
+            this.lastModified = lastModified;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package org.example.cache;
+
+import org.example.model.ClassInfo;
+import org.example.model.FieldInfo;
+import org.example.model.InstructionList;
+import org.example.model.MethodInfo;
+import org.example.model.ReflectionCall;
+import org.example.model.SymbolTable;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of a parsed {@link ClassInfo}: supertypes, methods with their
+ * instructions (call targets, field reads and writes), string constants, reflection calls,
+ * instantiated types and fields.
+ * Every string is written once into a per-class string table and referenced by index.
+ */
+public class ClassSummaryCodec {
+
+    private static final int MAGIC = 0xDC5A_C0DE;
+
+    /** Bump whenever the encoded model changes; entries with another version are ignored. */
+    static final int FORMAT_VERSION = 8;
+
+    public static void write(ClassInfo classInfo, DataOutputStream out) throws IOException {
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        collectStrings(classInfo, strings);
+
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+
+        writeVarInt(out, strings.size());
+        for (String value : strings.keySet()) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(out, utf8.length);
+            out.write(utf8);
+        }
+
+        writeString(out, strings, classInfo.getClassName());
+        writeVarInt(out, classInfo.getAccessFlags());
+        writeString(out, strings, classInfo.getSuperName());
+        writeVarInt(out, classInfo.getInterfaces().size());
+        for (String iface : classInfo.getInterfaces()) {
+            writeString(out, strings, iface);
+        }
+        writeVarInt(out, classInfo.getAnnotations().size());
+        for (String annotation : classInfo.getAnnotations()) {
+            writeString(out, strings, annotation);
+        }
+
+        writeVarInt(out, classInfo.getFields().size());
+        for (FieldInfo field : classInfo.getFields()) {
+            writeString(out, strings, field.getFieldName());
+            writeString(out, strings, field.getDescriptor());
+            writeVarInt(out, field.getAccessFlags());
+        }
+
+        writeVarInt(out, classInfo.getMethods().size());
+        for (MethodInfo method : classInfo.getMethods()) {
+            writeMethod(out, strings, method);
+        }
+    }
+
+    /**
+     * Decodes a summary written by {@link #write}; returns null if it was written by a
+     * different format version. Instruction operands are interned into {@code symbols}.
+     */
+    public static ClassInfo read(DataInputStream in, SymbolTable symbols) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+            return null;
+        }
+
+        String[] strings = new String[readVarInt(in)];
+        for (int i = 0; i < strings.length; i++) {
+            byte[] utf8 = new byte[readVarInt(in)];
+            in.readFully(utf8);
+            strings[i] = new String(utf8, StandardCharsets.UTF_8);
+        }
+
+        int[] symbolIds = new int[strings.length];
+        Arrays.fill(symbolIds, -1);
+
+        String className = readString(in, strings);
+        ClassInfo classInfo = new ClassInfo(className);
+        classInfo.setAccessFlags(readVarInt(in));
+        classInfo.setSuperName(readString(in, strings));
+        int interfaceCount = readVarInt(in);
+        for (int i = 0; i < interfaceCount; i++) {
+            classInfo.getInterfaces().add(readString(in, strings));
+        }
+        int annotationCount = readVarInt(in);
+        for (int i = 0; i < annotationCount; i++) {
+            classInfo.addAnnotation(readString(in, strings));
+        }
+
+        int fieldCount = readVarInt(in);
+        for (int i = 0; i < fieldCount; i++) {
+            String name = readString(in, strings);
+            String descriptor = readString(in, strings);
+            classInfo.addField(new FieldInfo(className, name, descriptor, readVarInt(in)));
+        }
+
+        int methodCount = readVarInt(in);
+        for (int i = 0; i < methodCount; i++) {
+            classInfo.addMethod(readMethod(in, strings, symbolIds, symbols, className));
+        }
+
+        return classInfo;
+    }
+
+    // ── Methods ────────────────────────────────────────────────────────────────
+
+    private static void writeMethod(DataOutputStream out, Map<String, Integer> strings,
+                                    MethodInfo method) throws IOException {
+        writeString(out, strings, method.getMethodName());
+        writeString(out, strings, method.getDescriptor());
+        writeVarInt(out, method.getAccessFlags());
+
+        // Instruction index is implied by position
+        InstructionList instructions = method.getInstructions();
+        writeVarInt(out, instructions.size());
+        for (int i = 0; i < instructions.size(); i++) {
+            out.writeByte(instructions.getOpcode(i));
+            out.writeByte(instructions.getKind(i));
+            writeString(out, strings, instructions.getTargetMethod(i));
+            writeVarInt(out, instructions.getTargetIndex(i) + 1); // -1 (unresolved) encodes as 0
+        }
+        writeVarInt(out, instructions.getBranchCount());
+        for (int i = 0; i < instructions.getBranchCount(); i++) {
+            writeVarInt(out, instructions.getBranchSource(i));
+            writeVarInt(out, instructions.getBranchTarget(i));
+        }
+        writeVarInt(out, instructions.getExceptionHandlerCount());
+        for (int i = 0; i < instructions.getExceptionHandlerCount(); i++) {
+            writeVarInt(out, instructions.getHandlerStart(i));
+            writeVarInt(out, instructions.getHandlerEnd(i));
+            writeVarInt(out, instructions.getHandlerTarget(i));
+        }
+
+        writeVarInt(out, method.getStringConstants().size());
+        for (String constant : method.getStringConstants()) {
+            writeString(out, strings, constant);
+        }
+
+        writeVarInt(out, method.getReflectionCalls().size());
+        for (ReflectionCall call : method.getReflectionCalls()) {
+            writeString(out, strings, call.getClassName());
+            writeString(out, strings, call.getMethodName());
+            writeString(out, strings, call.getDescriptor());
+            writeString(out, strings, call.getReflectionType());
+            writeVarInt(out, call.getLineNumber());
+            writeString(out, strings, call.getResolvedClassName());
+            writeString(out, strings, call.getResolvedMethodName());
+        }
+
+        writeVarInt(out, method.getInstantiatedTypes().size());
+        for (String type : method.getInstantiatedTypes()) {
+            writeString(out, strings, type);
+        }
+
+        writeVarInt(out, method.getAnnotations().size());
+        for (String annotation : method.getAnnotations()) {
+            writeString(out, strings, annotation);
+        }
+    }
+
+    private static MethodInfo readMethod(DataInputStream in, String[] strings, int[] symbolIds,
+                                         SymbolTable symbols, String className) throws IOException {
+        String name = readString(in, strings);
+        String descriptor = readString(in, strings);
+        MethodInfo method = new MethodInfo(className, name, descriptor, readVarInt(in));
+
+        int instructionCount = readVarInt(in);
+        InstructionList instructions = null;
+        if (instructionCount > 0) {
+            instructions = new InstructionList(symbols);
+            for (int i = 0; i < instructionCount; i++) {
+                int opcode = in.readUnsignedByte();
+                byte kind = in.readByte();
+                int targetId = readVarInt(in);
+                instructions.addInterned(opcode, kind, targetId == 0 ? -1 : symbolId(strings, symbolIds, symbols, targetId - 1));
+                int targetIndex = readVarInt(in) - 1;
+                if (targetIndex >= 0) {
+                    instructions.setTargetIndex(i, targetIndex);
+                }
+            }
+        }
+        int branchCount = readVarInt(in);
+        for (int i = 0; i < branchCount; i++) {
+            instructions.addBranchTarget(readVarInt(in), readVarInt(in));
+        }
+        int handlerCount = readVarInt(in);
+        for (int i = 0; i < handlerCount; i++) {
+            instructions.addExceptionHandler(readVarInt(in), readVarInt(in), readVarInt(in));
+        }
+        if (instructions != null) {
+            instructions.trimToSize();
+            method.setInstructions(instructions);
+        }
+
+        int constantCount = readVarInt(in);
+        for (int i = 0; i < constantCount; i++) {
+            method.addStringConstant(readString(in, strings));
+        }
+
+        int reflectionCount = readVarInt(in);
+        for (int i = 0; i < reflectionCount; i++) {
+            ReflectionCall call = new ReflectionCall(readString(in, strings), readString(in, strings),
+                    readString(in, strings), readString(in, strings));
+            call.setLineNumber(readVarInt(in));
+            call.setResolvedClassName(readString(in, strings));
+            call.setResolvedMethodName(readString(in, strings));
+            method.addReflectionCall(call);
+        }
+
+        int typeCount = readVarInt(in);
+        for (int i = 0; i < typeCount; i++) {
+            method.addInstantiatedType(readString(in, strings));
+        }
+
+        int annotationCount = readVarInt(in);
+        for (int i = 0; i < annotationCount; i++) {
+            method.addAnnotation(readString(in, strings));
+        }
+
+        return method;
+    }
+
+    // ── String table & varints ─────────────────────────────────────────────────
+
+    private static void collectStrings(ClassInfo classInfo, Map<String, Integer> strings) {
+        intern(strings, classInfo.getClassName());
+        intern(strings, classInfo.getSuperName());
+        for (String iface : classInfo.getInterfaces()) {
+            intern(strings, iface);
+        }
+        for (String annotation : classInfo.getAnnotations()) {
+            intern(strings, annotation);
+        }
+        for (FieldInfo field : classInfo.getFields()) {
+            intern(strings, field.getFieldName());
+            intern(strings, field.getDescriptor());
+        }
+        for (MethodInfo method : classInfo.getMethods()) {
+            intern(strings, method.getMethodName());
+            intern(strings, method.getDescriptor());
+            InstructionList instructions = method.getInstructions();
+            for (int i = 0; i < instructions.size(); i++) {
+                intern(strings, instructions.getTargetMethod(i));
+            }
+            for (String constant : method.getStringConstants()) {
+                intern(strings, constant);
+            }
+            for (ReflectionCall call : method.getReflectionCalls()) {
+                intern(strings, call.getClassName());
+                intern(strings, call.getMethodName());
+                intern(strings, call.getDescriptor());
+                intern(strings, call.getReflectionType());
+                intern(strings, call.getResolvedClassName());
+                intern(strings, call.getResolvedMethodName());
+            }
+            for (String type : method.getInstantiatedTypes()) {
+                intern(strings, type);
+            }
+            for (String annotation : method.getAnnotations()) {
+                intern(strings, annotation);
+            }
+        }
+    }
+
+    private static void intern(Map<String, Integer> strings, String value) {
+        if (value != null) {
+            strings.putIfAbsent(value, strings.size());
+        }
+    }
+
+    // Instruction operands are interned into the analysis symbol table once per string
+    private static int symbolId(String[] strings, int[] symbolIds, SymbolTable symbols, int index) {
+        if (symbolIds[index] < 0) {
+            symbolIds[index] = symbols.intern(strings[index]);
+        }
+        return symbolIds[index];
+    }
+
+    // Index 0 is reserved for null
+    private static void writeString(DataOutputStream out, Map<String, Integer> strings,
+                                    String value) throws IOException {
+        writeVarInt(out, value == null ? 0 : strings.get(value) + 1);
+    }
+
+    private static String readString(DataInputStream in, String[] strings) throws IOException {
+        int index = readVarInt(in);
+        return index == 0 ? null : strings[index - 1];
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
@@ -6,16 +6,66 @@ import java.util.*;
 public class CallGraph {
     private Map<String, GraphNode> nodes; // Key: method full name
     private Set<GraphNode> entryPoints; // Methods that can be entry points (e.g., main)
+    private GraphNode[] nodesBySymbol = new GraphNode[0]; // Key: MethodInfo.getSymbolId()
+    private final boolean edgeSets; // false: GraphNode caller/callee sets stay empty
+    // Without edge sets: edges by symbol id, and the symbols that have a caller
+    private final CompactCallGraph.Builder compactBuilder;
+    private final BitSet calledSymbols;
 
     public CallGraph() {
+        this(true);
+    }
+
+    /**
+     * @param edgeSets whether each {@link GraphNode} keeps its caller and callee sets. Without
+     *                 them, edges only go by symbol id into the builder behind
+     *                 {@link #toCompact()}, and traversals run on the compact graph; methods
+     *                 need a symbol id to take part in calls.
+     */
+    public CallGraph(boolean edgeSets) {
         this.nodes = new HashMap<>();
         this.entryPoints = new HashSet<>();
+        this.edgeSets = edgeSets;
+        this.compactBuilder = edgeSets ? null : CompactCallGraph.builder();
+        this.calledSymbols = edgeSets ? null : new BitSet();
+    }
+
+    /**
+     * Whether {@link GraphNode#getOutgoingCalls()} and {@link GraphNode#getIncomingCalls()}
+     * are maintained; node-walking traversals need them.
+     */
+    public boolean hasEdgeSets() {
+        return edgeSets;
     }
 
     public void addMethod(MethodInfo methodInfo) {
         String nodeId = methodInfo.getFullName();
         if (!nodes.containsKey(nodeId)) {
-            nodes.put(nodeId, new GraphNode(methodInfo));
+            GraphNode node = new GraphNode(methodInfo);
+            nodes.put(nodeId, node);
+            int symbolId = methodInfo.getSymbolId();
+            if (symbolId >= 0) {
+                if (symbolId >= nodesBySymbol.length) {
+                    nodesBySymbol = Arrays.copyOf(nodesBySymbol, Math.max(symbolId + 1, nodesBySymbol.length * 2));
+                }
+                nodesBySymbol[symbolId] = node;
+            }
+            if (compactBuilder != null) {
+                compactBuilder.addMethod(methodInfo);
+            }
+        }
+    }
+
+    /**
+     * Adds an edge between two methods identified by symbol id (see
+     * {@link MethodInfo#getSymbolId()}); ids of methods outside the graph are ignored.
+     */
+    public void addCall(int callerSymbol, int calleeSymbol) {
+        GraphNode caller = getNode(callerSymbol);
+        GraphNode callee = getNode(calleeSymbol);
+
+        if (caller != null && callee != null) {
+            link(caller, callee);
         }
     }
 
@@ -24,15 +74,29 @@ public class CallGraph {
         GraphNode callee = nodes.get(calleeId);
 
         if (caller != null && callee != null) {
-            caller.addOutgoingCall(callee);
-            callee.addIncomingCall(caller);
+            link(caller, callee);
+        }
+    }
+
+    /**
+     * Whether any call to {@code node} was added; works with or without edge sets.
+     */
+    public boolean hasIncomingCalls(GraphNode node) {
+        if (edgeSets) {
+            return !node.getIncomingCalls().isEmpty();
         }
+        int symbolId = node.getMethodInfo().getSymbolId();
+        return symbolId >= 0 && calledSymbols.get(symbolId);
     }
 
     public GraphNode getNode(String methodId) {
         return nodes.get(methodId);
     }
 
+    public GraphNode getNode(int symbolId) {
+        return symbolId >= 0 && symbolId < nodesBySymbol.length ? nodesBySymbol[symbolId] : null;
+    }
+
     public Collection<GraphNode> getAllNodes() {
         return nodes.values();
     }
@@ -46,8 +110,12 @@ public class CallGraph {
     }
 
     public Set<GraphNode> findReachableMethods(GraphNode startNode) {
+        if (!edgeSets) {
+            return findReachableCompact(startNode);
+        }
+
         Set<GraphNode> visited = new HashSet<>();
-        Queue<GraphNode> queue = new LinkedList<>();
+        Queue<GraphNode> queue = new ArrayDeque<>();
 
         queue.add(startNode);
         visited.add(startNode);
@@ -66,6 +134,71 @@ public class CallGraph {
         return visited;
     }
 
+    /**
+     * Snapshots this graph into an immutable, int-indexed {@link CompactCallGraph}. Without
+     * edge sets it is built from the edges recorded by symbol id as they were added.
+     */
+    public CompactCallGraph toCompact() {
+        if (!edgeSets) {
+            return compactBuilder.build();
+        }
+
+        CompactCallGraph.Builder builder = CompactCallGraph.builder();
+        for (GraphNode node : nodes.values()) {
+            builder.addMethod(node.getMethodInfo());
+        }
+        for (GraphNode node : nodes.values()) {
+            int caller = node.getMethodInfo().getSymbolId();
+            for (GraphNode callee : node.getOutgoingCalls()) {
+                builder.addCall(caller, callee.getMethodInfo().getSymbolId());
+            }
+        }
+        return builder.build();
+    }
+
+    private Set<GraphNode> findReachableCompact(GraphNode startNode) {
+        CompactCallGraph graph = toCompact();
+        Set<GraphNode> visited = new HashSet<>();
+        visited.add(startNode);
+        int start = graph.getMethodId(startNode.getMethodInfo().getSymbolId());
+        if (start < 0) {
+            return visited;
+        }
+
+        int[] offsets = graph.getOutgoingOffsets();
+        int[] targets = graph.getOutgoingTargets();
+        BitSet seen = new BitSet(graph.size());
+        int[] queue = new int[graph.size()];
+        int head = 0;
+        int tail = 0;
+        seen.set(start);
+        queue[tail++] = start;
+        while (head < tail) {
+            int current = queue[head++];
+            for (int e = offsets[current]; e < offsets[current + 1]; e++) {
+                if (!seen.get(targets[e])) {
+                    seen.set(targets[e]);
+                    queue[tail++] = targets[e];
+                    visited.add(getNode(graph.getMethodInfo(targets[e]).getSymbolId()));
+                }
+            }
+        }
+        return visited;
+    }
+
+    private void link(GraphNode caller, GraphNode callee) {
+        if (edgeSets) {
+            caller.addOutgoingCall(callee);
+            callee.addIncomingCall(caller);
+            return;
+        }
+        int calleeSymbol = callee.getMethodInfo().getSymbolId();
+        compactBuilder.addCall(caller.getMethodInfo().getSymbolId(), calleeSymbol);
+        if (calleeSymbol >= 0) {
+            calledSymbols.set(calleeSymbol);
+        }
+    }
+
     public Set<GraphNode> findUnreachableMethods(GraphNode startNode) {
         Set<GraphNode> reachable = findReachableMethods(startNode);
         Set<GraphNode> allNodes = new HashSet<>(nodes.values());
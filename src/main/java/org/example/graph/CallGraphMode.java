@@ -0,0 +1,16 @@
+package org.example.graph;
+
+/**
+ * How call instructions become call graph edges.
+ */
+public enum CallGraphMode {
+    /** Only the exact owner + signature named by the instruction. */
+    EXACT,
+    /** Class hierarchy analysis: virtual calls also reach every override in a subtype. */
+    CHA,
+    /**
+     * Rapid type analysis: virtual calls reach overrides in classes instantiated by reachable
+     * code only; edges are discovered during reachability.
+     */
+    RTA
+}
@@ -0,0 +1,399 @@
+package org.example.graph;
+
+import org.example.model.ClassInfo;
+import org.example.model.MethodInfo;
+import org.example.model.SymbolTable;
+import org.example.util.AccessFlagUtils;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Opcodes;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compact class hierarchy of the analyzed classes: integer class ids with their superclass,
+ * interfaces, direct subtypes and a method table per class. Supertypes outside the input
+ * (e.g. {@code java.lang.Runnable}) get an id too, and their own supertypes are read from
+ * the class headers on the analyzer's class path (the JDK and its libraries), so a class
+ * implementing {@code List} is also found as a subtype of {@code Collection} and
+ * {@code Iterable}. A library class whose class file is not found there is unresolved: the
+ * input classes below it may have supertypes the hierarchy does not know, which
+ * {@link #resolveVirtual} accounts for.
+ *
+ * <p>Used for class hierarchy analysis (CHA): a virtual call is linked to every
+ * implementation a concrete subtype of the receiver type would dispatch to. Dispatch sets
+ * are memoized per (type, signature).
+ */
+public class ClassHierarchy {
+
+    private static final String[] NO_TARGETS = new String[0];
+
+    private final Map<String, Integer> classIds = new HashMap<>();
+    private final List<String> classNames = new ArrayList<>();
+    private final List<ClassInfo> classInfos = new ArrayList<>(); // null for classes outside the input
+    // Supertype names per id; for classes outside the input read from the class path, if found
+    private final List<String> superNames = new ArrayList<>();
+    private final List<List<String>> interfaceNames = new ArrayList<>();
+    // Library classes whose class file was not found, and the input classes below them
+    private final BitSet unresolved = new BitSet();
+    private final BitSet incomplete = new BitSet();
+
+    private final int[] superclass;
+    private final int[][] interfaces;
+    private final int[][] subtypes;
+    // Signature (name + descriptor) -> declared method
+    private final List<Map<String, MethodInfo>> methodTables;
+
+    private final Map<String, String[]> dispatchCache = new ConcurrentHashMap<>();
+    // (target symbol id << 1 | virtual) -> target symbol ids, see resolveTargetIds
+    private final Map<Long, int[]> targetIdCache = new ConcurrentHashMap<>();
+
+    public ClassHierarchy(List<ClassInfo> classes) {
+        for (ClassInfo classInfo : classes) {
+            if (!classIds.containsKey(classInfo.getClassName())) {
+                register(classInfo.getClassName(), classInfo);
+            }
+        }
+        // Registering a supertype appends it, so this also walks library supertypes transitively
+        for (int id = 0; id < classNames.size(); id++) {
+            if (superNames.get(id) != null) {
+                idOf(superNames.get(id));
+            }
+            for (String iface : interfaceNames.get(id)) {
+                idOf(iface);
+            }
+        }
+
+        int size = classNames.size();
+        superclass = new int[size];
+        interfaces = new int[size][];
+        methodTables = new ArrayList<>(size);
+        List<List<Integer>> subtypeLists = new ArrayList<>(size);
+        for (int id = 0; id < size; id++) {
+            subtypeLists.add(new ArrayList<>());
+        }
+
+        for (int id = 0; id < size; id++) {
+            String superName = superNames.get(id);
+            superclass[id] = superName != null ? classIds.get(superName) : -1;
+            if (superclass[id] >= 0) {
+                subtypeLists.get(superclass[id]).add(id);
+            }
+            List<String> ifaces = interfaceNames.get(id);
+            interfaces[id] = new int[ifaces.size()];
+            for (int i = 0; i < interfaces[id].length; i++) {
+                interfaces[id][i] = classIds.get(ifaces.get(i));
+                subtypeLists.get(interfaces[id][i]).add(id);
+            }
+
+            Map<String, MethodInfo> table = new HashMap<>();
+            ClassInfo classInfo = classInfos.get(id);
+            if (classInfo != null) {
+                for (MethodInfo method : classInfo.getMethods()) {
+                    table.putIfAbsent(method.getMethodName() + method.getDescriptor(), method);
+                }
+            }
+            methodTables.add(table);
+        }
+
+        subtypes = new int[size][];
+        for (int id = 0; id < size; id++) {
+            subtypes[id] = subtypeLists.get(id).stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        Deque<Integer> queue = new ArrayDeque<>();
+        unresolved.stream().forEach(queue::add);
+        while (!queue.isEmpty()) {
+            for (int subtype : subtypes[queue.poll()]) {
+                if (!incomplete.get(subtype)) {
+                    incomplete.set(subtype);
+                    queue.add(subtype);
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return classNames.size();
+    }
+
+    /**
+     * Returns the id of a class (including supertypes outside the input), or -1.
+     */
+    public int getClassId(String className) {
+        Integer id = classIds.get(className);
+        return id != null ? id : -1;
+    }
+
+    public String getClassName(int classId) {
+        return classNames.get(classId);
+    }
+
+    public int[] getDirectSubtypes(int classId) {
+        return subtypes[classId];
+    }
+
+    /**
+     * True for input classes that can have instances: neither interfaces nor abstract.
+     */
+    public boolean isConcrete(int classId) {
+        ClassInfo classInfo = classInfos.get(classId);
+        return classInfo != null &&
+                !AccessFlagUtils.isInterface(classInfo.getAccessFlags()) &&
+                !AccessFlagUtils.isAbstract(classInfo.getAccessFlags());
+    }
+
+    /**
+     * {@code classId} followed by all of its transitive superclasses and superinterfaces.
+     */
+    public int[] getSupertypes(int classId) {
+        BitSet seen = new BitSet(size());
+        Deque<Integer> queue = new ArrayDeque<>();
+        queue.add(classId);
+        seen.set(classId);
+        int[] result = new int[8];
+        int count = 0;
+        while (!queue.isEmpty()) {
+            int c = queue.poll();
+            if (count == result.length) {
+                result = Arrays.copyOf(result, count * 2);
+            }
+            result[count++] = c;
+            if (superclass[c] >= 0 && !seen.get(superclass[c])) {
+                seen.set(superclass[c]);
+                queue.add(superclass[c]);
+            }
+            for (int iface : interfaces[c]) {
+                if (!seen.get(iface)) {
+                    seen.set(iface);
+                    queue.add(iface);
+                }
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * True if {@code classId} is {@code superId} or one of its (transitive) subtypes.
+     */
+    public boolean isSubtypeOf(int classId, int superId) {
+        if (classId == superId) {
+            return true;
+        }
+        if (superclass[classId] >= 0 && isSubtypeOf(superclass[classId], superId)) {
+            return true;
+        }
+        for (int iface : interfaces[classId]) {
+            if (isSubtypeOf(iface, superId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Resolves the method a call to {@code signature} on an instance of {@code classId}
+     * executes: the nearest non-abstract declaration up the superclass chain, otherwise a
+     * default method from a superinterface. Returns null if it is declared outside the input.
+     */
+    public MethodInfo lookup(int classId, String signature) {
+        for (int c = classId; c >= 0; c = superclass[c]) {
+            MethodInfo method = methodTables.get(c).get(signature);
+            if (method != null && !AccessFlagUtils.isAbstract(method.getAccessFlags())) {
+                return method;
+            }
+        }
+
+        // Default methods
+        Deque<Integer> queue = new ArrayDeque<>();
+        Set<Integer> seen = new HashSet<>();
+        for (int c = classId; c >= 0; c = superclass[c]) {
+            for (int iface : interfaces[c]) {
+                queue.add(iface);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int iface = queue.poll();
+            if (!seen.add(iface)) {
+                continue;
+            }
+            MethodInfo method = methodTables.get(iface).get(signature);
+            if (method != null && !AccessFlagUtils.isAbstract(method.getAccessFlags())
+                    && !method.isStatic()) {
+                return method;
+            }
+            for (int superIface : interfaces[iface]) {
+                queue.add(superIface);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Signatures (name + descriptor) declared by {@code classId} itself.
+     */
+    public Set<String> getDeclaredSignatures(int classId) {
+        return methodTables.get(classId).keySet();
+    }
+
+    /**
+     * Whether {@code classId} is below a library class whose class file was not found, so
+     * it may have supertypes this hierarchy does not know.
+     */
+    public boolean hasUnresolvedSupertypes(int classId) {
+        return incomplete.get(classId);
+    }
+
+    public boolean hasUnresolvedSupertypes() {
+        return !incomplete.isEmpty();
+    }
+
+    /**
+     * Full names of every method a virtual call to {@code owner.signature} can dispatch to
+     * under CHA. An owner without a class id is not a supertype of any input class whose
+     * supertypes are all known, so only the classes with unresolved supertypes can be the
+     * receiver. Memoized per (owner, signature).
+     */
+    public String[] resolveVirtual(String owner, String signature) {
+        return dispatchCache.computeIfAbsent(owner + '.' + signature, key -> {
+            int ownerId = getClassId(owner);
+            if (ownerId < 0) {
+                Set<String> targets = new LinkedHashSet<>();
+                for (int c = incomplete.nextSetBit(0); c >= 0; c = incomplete.nextSetBit(c + 1)) {
+                    MethodInfo target = isConcrete(c) ? lookup(c, signature) : null;
+                    if (target != null) {
+                        targets.add(target.getFullName());
+                    }
+                }
+                return targets.toArray(NO_TARGETS);
+            }
+
+            Set<String> targets = new LinkedHashSet<>();
+            BitSet visited = new BitSet(size());
+            Deque<Integer> queue = new ArrayDeque<>();
+            queue.add(ownerId);
+            visited.set(ownerId);
+            while (!queue.isEmpty()) {
+                int classId = queue.poll();
+                if (isConcrete(classId)) {
+                    MethodInfo target = lookup(classId, signature);
+                    if (target != null) {
+                        targets.add(target.getFullName());
+                    }
+                }
+                for (int subtype : subtypes[classId]) {
+                    if (!visited.get(subtype)) {
+                        visited.set(subtype);
+                        queue.add(subtype);
+                    }
+                }
+            }
+            return targets.toArray(NO_TARGETS);
+        });
+    }
+
+    /**
+     * Call graph targets of one call instruction (its opcode and {@code owner.name(desc)}
+     * target): the exact target plus, for
+     * invokevirtual/invokeinterface, the CHA dispatch set and, for invokestatic/invokespecial,
+     * an inherited declaration found up the hierarchy.
+     */
+    public List<String> resolveTargets(int opcode, String target) {
+        int paren = target.indexOf('(');
+        int dot = target.lastIndexOf('.', paren);
+        if (paren < 0 || dot < 0) {
+            return List.of(target);
+        }
+        String owner = target.substring(0, dot);
+        String signature = target.substring(dot + 1);
+
+        List<String> targets = new ArrayList<>();
+        targets.add(target);
+        switch (opcode) {
+            case Opcodes.INVOKEVIRTUAL:
+            case Opcodes.INVOKEINTERFACE:
+                Collections.addAll(targets, resolveVirtual(owner, signature));
+                break;
+            case Opcodes.INVOKESTATIC:
+            case Opcodes.INVOKESPECIAL:
+                if (signature.startsWith("<init>")) {
+                    break; // constructors are not inherited
+                }
+                int ownerId = getClassId(owner);
+                MethodInfo resolved = ownerId >= 0 ? lookup(ownerId, signature) : null;
+                if (resolved != null) {
+                    targets.add(resolved.getFullName());
+                }
+                break;
+        }
+        return targets;
+    }
+
+    /**
+     * Symbol id form of {@link #resolveTargets(int, String)} for a call instruction whose
+     * target is {@code targetId} in {@code symbols}. Memoized per target and dispatch kind,
+     * so each distinct call target is resolved once per analysis.
+     */
+    public int[] resolveTargetIds(int opcode, int targetId, SymbolTable symbols) {
+        boolean virtual = opcode == Opcodes.INVOKEVIRTUAL || opcode == Opcodes.INVOKEINTERFACE;
+        long key = ((long) targetId << 1) | (virtual ? 1 : 0);
+        return targetIdCache.computeIfAbsent(key, k -> {
+            List<String> targets = resolveTargets(opcode, symbols.get(targetId));
+            int[] ids = new int[targets.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = symbols.intern(targets.get(i));
+            }
+            return ids;
+        });
+    }
+
+    // ── Construction helpers ───────────────────────────────────────────────────
+
+    private int idOf(String className) {
+        Integer id = classIds.get(className);
+        return id != null ? id : register(className, null);
+    }
+
+    private int register(String className, ClassInfo classInfo) {
+        int id = classNames.size();
+        classIds.put(className, id);
+        classNames.add(className);
+        classInfos.add(classInfo);
+        if (classInfo != null) {
+            superNames.add(classInfo.getSuperName());
+            interfaceNames.add(classInfo.getInterfaces());
+        } else {
+            readLibraryHeader(id, className);
+        }
+        return id;
+    }
+
+    /**
+     * Adds the supertypes of a class outside the input, read from its class file on the
+     * analyzer's class path. If it is not found there it has none and is unresolved.
+     */
+    private void readLibraryHeader(int id, String className) {
+        String superName = null;
+        List<String> ifaces = Collections.emptyList();
+        ClassLoader loader = ClassHierarchy.class.getClassLoader();
+        try (InputStream in = loader.getResourceAsStream(className.replace('.', '/') + ".class")) {
+            if (in == null) {
+                unresolved.set(id);
+            } else {
+                ClassReader reader = new ClassReader(in);
+                superName = reader.getSuperName() != null ? reader.getSuperName().replace('/', '.') : null;
+                ifaces = new ArrayList<>();
+                for (String iface : reader.getInterfaces()) {
+                    ifaces.add(iface.replace('/', '.'));
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // Unreadable or unsupported class file
+            unresolved.set(id);
+        }
+        superNames.add(superName);
+        interfaceNames.add(ifaces);
+    }
+}
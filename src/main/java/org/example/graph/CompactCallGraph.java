@@ -0,0 +1,207 @@
+package org.example.graph;
+
+import org.example.model.MethodInfo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable call graph with methods interned to dense int ids and edges stored in
+ * compressed sparse row (CSR) form: the callees of method {@code m} are
+ * {@code outTargets[outOffsets[m] .. outOffsets[m + 1])}, callers are laid out the same way.
+ * Built through {@link Builder}, which {@link CallGraph} feeds with every method and call as
+ * they are added, keyed by method symbol id ({@link MethodInfo#getSymbolId()}).
+ */
+public class CompactCallGraph {
+
+    private final MethodInfo[] methods;
+    private final int[] idsBySymbol;
+    private final int[] outOffsets;
+    private final int[] outTargets;
+    private final int[] inOffsets;
+    private final int[] inSources;
+
+    private CompactCallGraph(MethodInfo[] methods, int[] idsBySymbol,
+                             int[] outOffsets, int[] outTargets, int[] inOffsets, int[] inSources) {
+        this.methods = methods;
+        this.idsBySymbol = idsBySymbol;
+        this.outOffsets = outOffsets;
+        this.outTargets = outTargets;
+        this.inOffsets = inOffsets;
+        this.inSources = inSources;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    // ── Nodes ──────────────────────────────────────────────────────────────────
+
+    public int size() {
+        return methods.length;
+    }
+
+    public int getEdgeCount() {
+        return outTargets.length;
+    }
+
+    /**
+     * Returns the id of the method with the given symbol id, or -1 if it is not in the graph.
+     */
+    public int getMethodId(int symbolId) {
+        return symbolId >= 0 && symbolId < idsBySymbol.length ? idsBySymbol[symbolId] : -1;
+    }
+
+    public MethodInfo getMethodInfo(int id) {
+        return methods[id];
+    }
+
+    // ── Edges ──────────────────────────────────────────────────────────────────
+
+    public int getOutDegree(int id) {
+        return outOffsets[id + 1] - outOffsets[id];
+    }
+
+    public int getInDegree(int id) {
+        return inOffsets[id + 1] - inOffsets[id];
+    }
+
+    public int[] getCallees(int id) {
+        return Arrays.copyOfRange(outTargets, outOffsets[id], outOffsets[id + 1]);
+    }
+
+    public int[] getCallers(int id) {
+        return Arrays.copyOfRange(inSources, inOffsets[id], inOffsets[id + 1]);
+    }
+
+    /**
+     * Raw CSR row offsets for outgoing edges (length {@code size() + 1}). Exposed for
+     * traversal loops; callers must not modify the array.
+     */
+    public int[] getOutgoingOffsets() {
+        return outOffsets;
+    }
+
+    public int[] getOutgoingTargets() {
+        return outTargets;
+    }
+
+    public int[] getIncomingOffsets() {
+        return inOffsets;
+    }
+
+    public int[] getIncomingSources() {
+        return inSources;
+    }
+
+    /**
+     * Assigns ids in the order methods are added. Calls are given by symbol id; calls naming
+     * a method that was not added are dropped exactly like {@link CallGraph#addCall(int, int)},
+     * and duplicate edges collapse on build.
+     */
+    public static class Builder {
+        private final List<MethodInfo> methods = new ArrayList<>();
+        private int[] idsBySymbol = new int[0];
+        private int[] edgeSources = new int[16];
+        private int[] edgeTargets = new int[16];
+        private int edgeCount;
+
+        public Builder addMethod(MethodInfo methodInfo) {
+            int symbolId = methodInfo.getSymbolId();
+            if (symbolId < 0) {
+                methods.add(methodInfo); // not addressable by calls
+                return this;
+            }
+            if (symbolId >= idsBySymbol.length) {
+                int oldLength = idsBySymbol.length;
+                idsBySymbol = Arrays.copyOf(idsBySymbol, Math.max(symbolId + 1, oldLength * 2));
+                Arrays.fill(idsBySymbol, oldLength, idsBySymbol.length, -1);
+            }
+            if (idsBySymbol[symbolId] < 0) {
+                idsBySymbol[symbolId] = methods.size();
+                methods.add(methodInfo);
+            }
+            return this;
+        }
+
+        public Builder addCall(int callerSymbol, int calleeSymbol) {
+            int caller = getMethodId(callerSymbol);
+            int callee = getMethodId(calleeSymbol);
+            if (caller < 0 || callee < 0) {
+                return this;
+            }
+
+            if (edgeCount == edgeSources.length) {
+                edgeSources = Arrays.copyOf(edgeSources, edgeCount * 2);
+                edgeTargets = Arrays.copyOf(edgeTargets, edgeCount * 2);
+            }
+            edgeSources[edgeCount] = caller;
+            edgeTargets[edgeCount] = callee;
+            edgeCount++;
+            return this;
+        }
+
+        public int getMethodId(int symbolId) {
+            return symbolId >= 0 && symbolId < idsBySymbol.length ? idsBySymbol[symbolId] : -1;
+        }
+
+        public CompactCallGraph build() {
+            int nodeCount = methods.size();
+
+            int[] outOffsets = new int[nodeCount + 1];
+            int[] outTargets = toRows(edgeSources, edgeTargets, edgeCount, nodeCount, outOffsets);
+
+            // Incoming rows are derived from the de-duplicated outgoing rows
+            int uniqueEdges = outTargets.length;
+            int[] sources = new int[uniqueEdges];
+            for (int node = 0; node < nodeCount; node++) {
+                for (int e = outOffsets[node]; e < outOffsets[node + 1]; e++) {
+                    sources[e] = node;
+                }
+            }
+            int[] inOffsets = new int[nodeCount + 1];
+            int[] inSources = toRows(outTargets, sources, uniqueEdges, nodeCount, inOffsets);
+
+            return new CompactCallGraph(methods.toArray(new MethodInfo[0]), idsBySymbol.clone(),
+                    outOffsets, outTargets, inOffsets, inSources);
+        }
+
+        /**
+         * Counting-sorts the (row, value) pairs into CSR form, filling {@code offsets} and
+         * returning the value array with each row sorted and de-duplicated.
+         */
+        private static int[] toRows(int[] rows, int[] values, int count, int nodeCount, int[] offsets) {
+            int[] cursor = new int[nodeCount + 1];
+            for (int i = 0; i < count; i++) {
+                cursor[rows[i] + 1]++;
+            }
+            for (int node = 0; node < nodeCount; node++) {
+                cursor[node + 1] += cursor[node];
+            }
+
+            int[] sorted = new int[count];
+            int[] start = Arrays.copyOf(cursor, nodeCount + 1);
+            for (int i = 0; i < count; i++) {
+                sorted[cursor[rows[i]]++] = values[i];
+            }
+
+            int[] compacted = new int[count];
+            int size = 0;
+            for (int node = 0; node < nodeCount; node++) {
+                offsets[node] = size;
+                int from = start[node];
+                int to = start[node + 1];
+                Arrays.sort(sorted, from, to);
+                for (int i = from; i < to; i++) {
+                    if (i == from || sorted[i] != sorted[i - 1]) {
+                        compacted[size++] = sorted[i];
+                    }
+                }
+            }
+            offsets[nodeCount] = size;
+
+            return size == count ? compacted : Arrays.copyOf(compacted, size);
+        }
+    }
+}
@@ -1,111 +1,232 @@
 package org.example.graph;
 
-import org.example.model.InstructionInfo;
+import org.example.model.InstructionList;
 import org.example.model.MethodInfo;
+import org.objectweb.asm.Opcodes;
+
 import java.util.*;
 
+/**
+ * Basic-block control flow graph of one method, built from the label-resolved jump, switch
+ * and exception handler targets in its {@link InstructionList}.
+ *
+ * <p>Blocks are numbered in instruction order. Block starts and successors are kept in
+ * {@code int[]} arrays (successors in CSR form: {@code successorOffsets[b]} up to
+ * {@code successorOffsets[b + 1]}) and reachability runs on a {@link BitSet} worklist,
+ * so no boxed indices or hash sets are created per method.
+ */
 public class ControlFlowGraph {
-    private MethodInfo methodInfo;
-    private Map<Integer, Set<Integer>> edges; // From instruction index to target indices
-    private Set<Integer> basicBlockStarts;
+    private final MethodInfo methodInfo;
+    private final int instructionCount;
+    private int[] blockStarts;      // first instruction of each block, plus instructionCount as sentinel
+    private int[] blockOf;          // instruction index -> block
+    private int[] successorOffsets; // block -> start in successors, plus a sentinel
+    private int[] successors;
+
+    // Edge buffer, only used while building
+    private int[] edgeFrom;
+    private int[] edgeTo;
+    private int edgeCount;
 
     public ControlFlowGraph(MethodInfo methodInfo) {
         this.methodInfo = methodInfo;
-        this.edges = new HashMap<>();
-        this.basicBlockStarts = new HashSet<>();
+        this.instructionCount = methodInfo.getInstructions().size();
         buildGraph();
     }
 
     private void buildGraph() {
-        List<InstructionInfo> instructions = methodInfo.getInstructions();
-
-        // Add sequential flow edges
-        for (int i = 0; i < instructions.size() - 1; i++) {
-            addEdge(i, i + 1);
-        }
-
-        // Add control flow edges
-        for (int i = 0; i < instructions.size(); i++) {
-            InstructionInfo instr = instructions.get(i);
-            if (instr.isControlFlow()) {
-                // For jump instructions, we need to identify targets
-                // In a real implementation, you'd parse the actual label targets
-                // This is a simplified version
-                int targetIndex = instr.getTargetIndex();
-                if (targetIndex >= 0 && targetIndex < instructions.size()) {
-                    addEdge(i, targetIndex);
-                }
+        InstructionList instructions = methodInfo.getInstructions();
+        int n = instructionCount;
+
+        // Leaders: entry, branch targets, handlers and protected range bounds, and the
+        // instruction after every jump, switch, return or throw
+        BitSet leaders = new BitSet(n);
+        if (n > 0) {
+            leaders.set(0);
+        }
+        for (int i = 0; i < n; i++) {
+            if (endsBlock(instructions, i) && i + 1 < n) {
+                leaders.set(i + 1);
+            }
+            int target = instructions.getTargetIndex(i);
+            if (target >= 0 && target < n) {
+                leaders.set(target);
+            }
+        }
+        for (int b = 0; b < instructions.getBranchCount(); b++) {
+            setLeader(leaders, instructions.getBranchTarget(b), n);
+        }
+        for (int h = 0; h < instructions.getExceptionHandlerCount(); h++) {
+            setLeader(leaders, instructions.getHandlerStart(h), n);
+            setLeader(leaders, instructions.getHandlerEnd(h), n);
+            setLeader(leaders, instructions.getHandlerTarget(h), n);
+        }
+
+        int blockCount = leaders.cardinality();
+        blockStarts = new int[blockCount + 1];
+        blockOf = new int[n];
+        int block = -1;
+        for (int i = 0; i < n; i++) {
+            if (leaders.get(i)) {
+                blockStarts[++block] = i;
+            }
+            blockOf[i] = block;
+        }
+        blockStarts[blockCount] = n;
+
+        // Edges as parallel (from, to) block arrays, then packed per block
+        edgeFrom = new int[Math.max(4, blockCount * 2)];
+        edgeTo = new int[edgeFrom.length];
+        for (int b = 0; b < blockCount; b++) {
+            int last = blockStarts[b + 1] - 1;
+            int opcode = instructions.getOpcode(last);
+            if (!isUnconditional(opcode) && b + 1 < blockCount) {
+                addEdge(b, b + 1);
+            }
+            int target = instructions.getTargetIndex(last);
+            if (target >= 0 && target < n) {
+                addEdge(b, blockOf[target]);
+            }
+        }
+        for (int br = 0; br < instructions.getBranchCount(); br++) {
+            int source = instructions.getBranchSource(br);
+            int target = instructions.getBranchTarget(br);
+            if (source < n && target < n) {
+                addEdge(blockOf[source], blockOf[target]);
+            }
+        }
+        // Any block inside a protected range may transfer control to its handler
+        for (int h = 0; h < instructions.getExceptionHandlerCount(); h++) {
+            int start = instructions.getHandlerStart(h);
+            int end = Math.min(instructions.getHandlerEnd(h), n);
+            int handler = instructions.getHandlerTarget(h);
+            if (start >= end || handler >= n) {
+                continue;
+            }
+            for (int b = blockOf[start]; b < blockCount && blockStarts[b] < end; b++) {
+                addEdge(b, blockOf[handler]);
             }
         }
 
-        // Identify basic block starts
-        identifyBasicBlocks();
+        successorOffsets = new int[blockCount + 1];
+        for (int e = 0; e < edgeCount; e++) {
+            successorOffsets[edgeFrom[e] + 1]++;
+        }
+        for (int b = 0; b < blockCount; b++) {
+            successorOffsets[b + 1] += successorOffsets[b];
+        }
+        successors = new int[edgeCount];
+        int[] cursor = Arrays.copyOf(successorOffsets, blockCount);
+        for (int e = 0; e < edgeCount; e++) {
+            successors[cursor[edgeFrom[e]]++] = edgeTo[e];
+        }
+        edgeFrom = null;
+        edgeTo = null;
     }
 
     private void addEdge(int from, int to) {
-        edges.computeIfAbsent(from, k -> new HashSet<>()).add(to);
+        if (edgeCount == edgeFrom.length) {
+            edgeFrom = Arrays.copyOf(edgeFrom, edgeCount * 2);
+            edgeTo = Arrays.copyOf(edgeTo, edgeCount * 2);
+        }
+        edgeFrom[edgeCount] = from;
+        edgeTo[edgeCount] = to;
+        edgeCount++;
     }
 
-    private void identifyBasicBlocks() {
-        basicBlockStarts.add(0); // First instruction starts a basic block
-
-        for (int i = 0; i < methodInfo.getInstructions().size(); i++) {
-            InstructionInfo instr = methodInfo.getInstructions().get(i);
-            if (instr.isControlFlow()) {
-                // Next instruction after a control flow is a new basic block
-                if (i + 1 < methodInfo.getInstructions().size()) {
-                    basicBlockStarts.add(i + 1);
-                }
-                // Target of control flow is also a basic block start
-                int targetIndex = instr.getTargetIndex();
-                if (targetIndex >= 0) {
-                    basicBlockStarts.add(targetIndex);
-                }
-            }
+    private static void setLeader(BitSet leaders, int index, int instructionCount) {
+        if (index >= 0 && index < instructionCount) {
+            leaders.set(index);
         }
     }
 
-    public Set<Integer> findReachableInstructions(int startIndex) {
-        Set<Integer> visited = new HashSet<>();
-        Queue<Integer> queue = new LinkedList<>();
+    private static boolean endsBlock(InstructionList instructions, int index) {
+        return instructions.isControlFlow(index) || isUnconditional(instructions.getOpcode(index));
+    }
+
+    /**
+     * Instructions after which execution never falls through to the next instruction.
+     */
+    private static boolean isUnconditional(int opcode) {
+        switch (opcode) {
+            case Opcodes.GOTO:
+            case Opcodes.TABLESWITCH:
+            case Opcodes.LOOKUPSWITCH:
+            case Opcodes.RET:
+            case Opcodes.IRETURN:
+            case Opcodes.LRETURN:
+            case Opcodes.FRETURN:
+            case Opcodes.DRETURN:
+            case Opcodes.ARETURN:
+            case Opcodes.RETURN:
+            case Opcodes.ATHROW:
+                return true;
+            default:
+                return false;
+        }
+    }
 
-        queue.add(startIndex);
-        visited.add(startIndex);
+    // ── Reachability ───────────────────────────────────────────────────────────
 
-        while (!queue.isEmpty()) {
-            int current = queue.poll();
-            Set<Integer> neighbors = edges.get(current);
+    /**
+     * Blocks reachable from the block containing {@code startIndex}.
+     */
+    public BitSet findReachableBlocks(int startIndex) {
+        BitSet reached = new BitSet(getBlockCount());
+        if (startIndex < 0 || startIndex >= instructionCount) {
+            return reached;
+        }
 
-            if (neighbors != null) {
-                for (int neighbor : neighbors) {
-                    if (!visited.contains(neighbor)) {
-                        visited.add(neighbor);
-                        queue.add(neighbor);
-                    }
+        BitSet pending = new BitSet(getBlockCount());
+        int start = blockOf[startIndex];
+        reached.set(start);
+        pending.set(start);
+        for (int block = pending.nextSetBit(0); block >= 0; block = pending.nextSetBit(0)) {
+            pending.clear(block);
+            for (int e = successorOffsets[block]; e < successorOffsets[block + 1]; e++) {
+                int successor = successors[e];
+                if (!reached.get(successor)) {
+                    reached.set(successor);
+                    pending.set(successor);
                 }
             }
         }
+        return reached;
+    }
 
-        return visited;
+    public BitSet findReachableInstructions(int startIndex) {
+        BitSet reachedBlocks = findReachableBlocks(startIndex);
+        BitSet reachable = new BitSet(instructionCount);
+        for (int b = reachedBlocks.nextSetBit(0); b >= 0; b = reachedBlocks.nextSetBit(b + 1)) {
+            reachable.set(blockStarts[b], blockStarts[b + 1]);
+        }
+        return reachable;
     }
 
-    public Set<Integer> findUnreachableInstructions(int startIndex) {
-        Set<Integer> reachable = findReachableInstructions(startIndex);
-        Set<Integer> allIndices = new HashSet<>();
+    public BitSet findUnreachableInstructions(int startIndex) {
+        BitSet unreachable = findReachableInstructions(startIndex);
+        unreachable.flip(0, instructionCount);
+        return unreachable;
+    }
 
-        for (int i = 0; i < methodInfo.getInstructions().size(); i++) {
-            allIndices.add(i);
-        }
+    // ── Structure ──────────────────────────────────────────────────────────────
+
+    public int getBlockCount() {
+        return blockStarts.length - 1;
+    }
 
-        allIndices.removeAll(reachable);
-        return allIndices;
+    /**
+     * First instruction index of every basic block, in order.
+     */
+    public int[] getBasicBlockStarts() {
+        return Arrays.copyOf(blockStarts, getBlockCount());
     }
 
-    public Set<Integer> getBasicBlockStarts() {
-        return basicBlockStarts;
+    public int getBlockOf(int instructionIndex) {
+        return blockOf[instructionIndex];
     }
 
-    public Map<Integer, Set<Integer>> getEdges() {
-        return edges;
+    public int[] getSuccessors(int block) {
+        return Arrays.copyOfRange(successors, successorOffsets[block], successorOffsets[block + 1]);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,47 @@
+package org.example.model;
+
+import java.util.*;
+
+/**
+ * Entry points declared by archive metadata rather than code: the {@code Main-Class} (and
+ * Spring Boot {@code Start-Class}) of the manifest, and service providers listed in
+ * {@code META-INF/services/*} files or {@code provides} clauses of {@code module-info.class}.
+ * Class names are dotted.
+ */
+public class ArchiveMetadata {
+
+    private final Set<String> mainClasses = new LinkedHashSet<>();
+    // Service interface -> provider classes
+    private final Map<String, Set<String>> serviceProviders = new TreeMap<>();
+
+    public Set<String> getMainClasses() {
+        return mainClasses;
+    }
+
+    public void addMainClass(String className) {
+        mainClasses.add(className);
+    }
+
+    public Map<String, Set<String>> getServiceProviders() {
+        return serviceProviders;
+    }
+
+    public void addServiceProvider(String service, String provider) {
+        serviceProviders.computeIfAbsent(service, k -> new LinkedHashSet<>()).add(provider);
+    }
+
+    /**
+     * All provider classes, over every service.
+     */
+    public Set<String> getProviderClasses() {
+        Set<String> providers = new HashSet<>();
+        for (Set<String> providersOfService : serviceProviders.values()) {
+            providers.addAll(providersOfService);
+        }
+        return providers;
+    }
+
+    public boolean isEmpty() {
+        return mainClasses.isEmpty() && serviceProviders.isEmpty();
+    }
+}
@@ -8,11 +8,15 @@ public class ClassInfo {
     private List<MethodInfo> methods;
     private List<FieldInfo> fields;
     private int accessFlags;
+    private String superName;          // null for java.lang.Object and module-info
+    private List<String> interfaces;
+    private List<String> annotations = List.of(); // annotation classes, allocated on the first one
 
     public ClassInfo(String className) {
         this.className = className;
         this.methods = new ArrayList<>();
         this.fields = new ArrayList<>();
+        this.interfaces = new ArrayList<>();
     }
 
     // Getters and setters
@@ -29,4 +33,18 @@ public class ClassInfo {
 
     public int getAccessFlags() { return accessFlags; }
     public void setAccessFlags(int accessFlags) { this.accessFlags = accessFlags; }
+
+    public String getSuperName() { return superName; }
+    public void setSuperName(String superName) { this.superName = superName; }
+
+    public List<String> getInterfaces() { return interfaces; }
+    public void setInterfaces(List<String> interfaces) { this.interfaces = interfaces; }
+
+    public List<String> getAnnotations() { return annotations; }
+    public void addAnnotation(String annotationClass) {
+        if (annotations.isEmpty()) {
+            annotations = new ArrayList<>(2);
+        }
+        annotations.add(annotationClass);
+    }
 }
\ No newline at end of file
@@ -7,6 +7,8 @@ public class FieldInfo {
     private int accessFlags;
     private boolean isRead;
     private boolean isWritten;
+    private String fullName;   // cached getFullName()
+    private int symbolId = -1; // id of getFullName() in the analysis SymbolTable
 
     public FieldInfo(String ownerClass, String fieldName, String descriptor, int accessFlags) {
         this.ownerClass = ownerClass;
@@ -28,9 +30,15 @@ public class FieldInfo {
     public void setWritten(boolean written) { isWritten = written; }
 
     public String getFullName() {
-        return ownerClass + "." + fieldName + ":" + descriptor;
+        if (fullName == null) {
+            fullName = ownerClass + "." + fieldName + ":" + descriptor;
+        }
+        return fullName;
     }
 
+    public int getSymbolId() { return symbolId; }
+    public void setSymbolId(int symbolId) { this.symbolId = symbolId; }
+
     public boolean isStatic() {
         return (accessFlags & 0x0008) != 0; // ACC_STATIC
     }
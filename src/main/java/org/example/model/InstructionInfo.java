@@ -5,12 +5,13 @@ public class InstructionInfo {
     private int index;
     private String instructionType; // "METHOD_CALL", "CONTROL_FLOW", "OTHER"
     private String targetMethod; // For method calls: class.method descriptor
-    private int targetIndex; // For control flow: target instruction index
+    private int targetIndex; // For control flow: target instruction index (-1 if unresolved)
 
     public InstructionInfo(int opcode, int index) {
         this.opcode = opcode;
         this.index = index;
         this.instructionType = "OTHER";
+        this.targetIndex = -1;
     }
 
     // Getters and setters
@@ -0,0 +1,268 @@
+package org.example.model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Struct-of-arrays storage for the instructions of one method: opcode and kind bytes plus
+ * an operand id into the analysis {@link SymbolTable} (call target or field reference, the
+ * same id as the target's {@code getSymbolId()}). The position of an instruction is its
+ * index, so no per-instruction objects are kept.
+ *
+ * <p>Control flow is kept as instruction indices resolved from the bytecode labels: one jump
+ * target per instruction ({@link #getTargetIndex(int)}, the default target of a switch),
+ * additional branch targets (switch cases) and exception handler ranges.
+ *
+ * <p>Hot paths use the indexed accessors ({@link #isMethodCall(int)},
+ * {@link #getTargetMethod(int)}, ...). As a {@code List<InstructionInfo>} it is a read view:
+ * {@link #get(int)} returns a fresh {@link InstructionInfo} snapshot.
+ */
+public class InstructionList extends AbstractList<InstructionInfo> implements RandomAccess {
+
+    // ── Kind codes ─────────────────────────────────────────────────────────────
+
+    public static final byte OTHER = 0;
+    public static final byte METHOD_CALL = 1;
+    public static final byte CONTROL_FLOW = 2;
+    public static final byte FIELD_READ = 3;
+    public static final byte FIELD_WRITE = 4;
+    public static final byte FIELD_ACCESS = 5;
+    public static final byte REFLECTION_CALL = 6;
+
+    private static final String[] KIND_NAMES = {
+            "OTHER", "METHOD_CALL", "CONTROL_FLOW", "FIELD_READ", "FIELD_WRITE", "FIELD_ACCESS", "REFLECTION_CALL"
+    };
+
+    /** Shared list of methods without code; adding to it fails. */
+    public static final InstructionList EMPTY = new InstructionList(null);
+
+    private static final byte[] NO_BYTES = new byte[0];
+    private static final int[] NO_INTS = new int[0];
+
+    private final SymbolTable symbols;
+    private byte[] opcodes = NO_BYTES;
+    private byte[] kinds = NO_BYTES;
+    private int[] operands = NO_INTS;
+    private int[] targetIndexes; // allocated on the first resolved jump target
+    private int size;
+    private int[] branches = NO_INTS; // (source, target) pairs of switch cases
+    private int branchCount;
+    private int[] handlers = NO_INTS; // (start, end, handler) triples, end exclusive
+    private int handlerCount;
+
+    public InstructionList(SymbolTable symbols) {
+        this.symbols = symbols;
+    }
+
+    public static byte kindOf(String instructionType) {
+        for (byte kind = 0; kind < KIND_NAMES.length; kind++) {
+            if (KIND_NAMES[kind].equals(instructionType)) {
+                return kind;
+            }
+        }
+        return OTHER;
+    }
+
+    public static String kindName(byte kind) {
+        return KIND_NAMES[kind];
+    }
+
+    // ── Building ───────────────────────────────────────────────────────────────
+
+    /**
+     * Appends an instruction; {@code operand} is its call target or field reference
+     * ({@code owner.name(desc)} / {@code owner.name:desc}), or null.
+     */
+    public void add(int opcode, byte kind, String operand) {
+        addInterned(opcode, kind, operand == null ? -1 : symbols.intern(operand));
+    }
+
+    /**
+     * Appends an instruction whose operand is already an id in this list's symbol table.
+     */
+    public void addInterned(int opcode, byte kind, int operandId) {
+        if (size == opcodes.length) {
+            grow();
+        }
+        opcodes[size] = (byte) opcode;
+        kinds[size] = kind;
+        operands[size] = operandId;
+        size++;
+    }
+
+    @Override
+    public boolean add(InstructionInfo instruction) {
+        int index = size;
+        add(instruction.getOpcode(), kindOf(instruction.getInstructionType()), instruction.getTargetMethod());
+        if (instruction.getTargetIndex() >= 0) {
+            setTargetIndex(index, instruction.getTargetIndex());
+        }
+        return true;
+    }
+
+    public void setTargetIndex(int index, int targetIndex) {
+        if (targetIndexes == null) {
+            targetIndexes = new int[opcodes.length];
+            Arrays.fill(targetIndexes, -1);
+        }
+        targetIndexes[index] = targetIndex;
+    }
+
+    /**
+     * Adds a branch target besides {@link #getTargetIndex(int)}, e.g. a switch case.
+     */
+    public void addBranchTarget(int index, int targetIndex) {
+        checkMutable();
+        if (branchCount * 2 == branches.length) {
+            branches = Arrays.copyOf(branches, Math.max(8, branches.length * 2));
+        }
+        branches[branchCount * 2] = index;
+        branches[branchCount * 2 + 1] = targetIndex;
+        branchCount++;
+    }
+
+    /**
+     * Adds an exception handler covering the instructions {@code [start, end)}.
+     */
+    public void addExceptionHandler(int start, int end, int handler) {
+        checkMutable();
+        if (handlerCount * 3 == handlers.length) {
+            handlers = Arrays.copyOf(handlers, Math.max(6, handlers.length * 2));
+        }
+        handlers[handlerCount * 3] = start;
+        handlers[handlerCount * 3 + 1] = end;
+        handlers[handlerCount * 3 + 2] = handler;
+        handlerCount++;
+    }
+
+    /**
+     * Drops the spare capacity once the method has been fully scanned.
+     */
+    public void trimToSize() {
+        if (branchCount * 2 < branches.length) {
+            branches = Arrays.copyOf(branches, branchCount * 2);
+        }
+        if (handlerCount * 3 < handlers.length) {
+            handlers = Arrays.copyOf(handlers, handlerCount * 3);
+        }
+        if (size < opcodes.length) {
+            opcodes = Arrays.copyOf(opcodes, size);
+            kinds = Arrays.copyOf(kinds, size);
+            operands = Arrays.copyOf(operands, size);
+            if (targetIndexes != null) {
+                targetIndexes = Arrays.copyOf(targetIndexes, size);
+            }
+        }
+    }
+
+    private void grow() {
+        checkMutable();
+        int capacity = Math.max(16, opcodes.length * 2);
+        opcodes = Arrays.copyOf(opcodes, capacity);
+        kinds = Arrays.copyOf(kinds, capacity);
+        operands = Arrays.copyOf(operands, capacity);
+        if (targetIndexes != null) {
+            int oldLength = targetIndexes.length;
+            targetIndexes = Arrays.copyOf(targetIndexes, capacity);
+            Arrays.fill(targetIndexes, oldLength, capacity, -1);
+        }
+    }
+
+    private void checkMutable() {
+        if (this == EMPTY) {
+            throw new UnsupportedOperationException("EMPTY instruction list is immutable");
+        }
+    }
+
+    // ── Indexed accessors ──────────────────────────────────────────────────────
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public int getOpcode(int index) {
+        return opcodes[index] & 0xFF;
+    }
+
+    public byte getKind(int index) {
+        return kinds[index];
+    }
+
+    public String getInstructionType(int index) {
+        return KIND_NAMES[kinds[index]];
+    }
+
+    public boolean isMethodCall(int index) {
+        return kinds[index] == METHOD_CALL;
+    }
+
+    public boolean isControlFlow(int index) {
+        return kinds[index] == CONTROL_FLOW;
+    }
+
+    /**
+     * Symbol id of the call target or field reference, or -1 if the instruction has none.
+     */
+    public int getTargetId(int index) {
+        return operands[index];
+    }
+
+    public String getTargetMethod(int index) {
+        return operands[index] >= 0 ? symbols.get(operands[index]) : null;
+    }
+
+    /**
+     * Index of the jump target, or -1 if unresolved.
+     */
+    public int getTargetIndex(int index) {
+        return targetIndexes != null ? targetIndexes[index] : -1;
+    }
+
+    // ── Control flow ───────────────────────────────────────────────────────────
+
+    public int getBranchCount() {
+        return branchCount;
+    }
+
+    public int getBranchSource(int branch) {
+        return branches[branch * 2];
+    }
+
+    public int getBranchTarget(int branch) {
+        return branches[branch * 2 + 1];
+    }
+
+    public int getExceptionHandlerCount() {
+        return handlerCount;
+    }
+
+    public int getHandlerStart(int handler) {
+        return handlers[handler * 3];
+    }
+
+    public int getHandlerEnd(int handler) {
+        return handlers[handler * 3 + 1];
+    }
+
+    public int getHandlerTarget(int handler) {
+        return handlers[handler * 3 + 2];
+    }
+
+    public SymbolTable getSymbolTable() {
+        return symbols;
+    }
+
+    @Override
+    public InstructionInfo get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        InstructionInfo instruction = new InstructionInfo(getOpcode(index), index);
+        instruction.setInstructionType(getInstructionType(index));
+        instruction.setTargetMethod(getTargetMethod(index));
+        instruction.setTargetIndex(getTargetIndex(index));
+        return instruction;
+    }
+}
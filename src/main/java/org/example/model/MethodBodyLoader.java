@@ -0,0 +1,19 @@
+package org.example.model;
+
+import java.util.List;
+
+/**
+ * Decodes a method body on demand. Attached to {@link MethodInfo}s created from class
+ * headers only, so instructions are materialized when an analysis actually reaches the method.
+ */
+public interface MethodBodyLoader {
+
+    void loadBody(MethodInfo methodInfo);
+
+    /**
+     * Decodes several bodies at once, e.g. in one pass over their class. {@link #loadBody}
+     * is still called for each of them afterwards and must not decode them again.
+     */
+    default void loadBodies(List<MethodInfo> methodInfos) {
+    }
+}
@@ -1,7 +1,10 @@
 package org.example.model;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class MethodInfo {
     private String ownerClass;
@@ -9,9 +12,16 @@ public class MethodInfo {
     private String descriptor;
     private int accessFlags;
 
-    private List<InstructionInfo> instructions;
+    private InstructionList instructions;             // null until the body has been scanned
     private List<ReflectionCall> reflectionCalls;     // NEW: tracks reflection API usage
     private List<String> stringConstants;             // NEW: captures string literals (useful for reflection analysis)
+    private List<String> instantiatedTypes;           // classes created by NEW instructions
+    private List<String> annotations = List.of();     // annotation classes, allocated on the first one
+
+    private MethodBodyLoader bodyLoader;              // set while the body has not been decoded yet
+
+    private String fullName;                          // cached getFullName()
+    private int symbolId = -1;                        // id of getFullName() in the analysis SymbolTable
 
     public MethodInfo(String ownerClass, String methodName, String descriptor, int accessFlags) {
         this.ownerClass = ownerClass;
@@ -19,9 +29,9 @@ public class MethodInfo {
         this.descriptor = descriptor;
         this.accessFlags = accessFlags;
 
-        this.instructions = new ArrayList<>();
         this.reflectionCalls = new ArrayList<>();
         this.stringConstants = new ArrayList<>();
+        this.instantiatedTypes = new ArrayList<>();
     }
 
     // ── Getters & Setters ───────────────────────────────────────────────────────
@@ -32,6 +42,7 @@ public class MethodInfo {
 
     public void setOwnerClass(String ownerClass) {
         this.ownerClass = ownerClass;
+        this.fullName = null;
     }
 
     public String getMethodName() {
@@ -40,6 +51,7 @@ public class MethodInfo {
 
     public void setMethodName(String methodName) {
         this.methodName = methodName;
+        this.fullName = null;
     }
 
     public String getDescriptor() {
@@ -48,6 +60,7 @@ public class MethodInfo {
 
     public void setDescriptor(String descriptor) {
         this.descriptor = descriptor;
+        this.fullName = null;
     }
 
     public int getAccessFlags() {
@@ -59,15 +72,22 @@ public class MethodInfo {
     }
 
     // Instructions
-    public List<InstructionInfo> getInstructions() {
-        return instructions;
+    public InstructionList getInstructions() {
+        return instructions != null ? instructions : InstructionList.EMPTY;
     }
 
-    public void setInstructions(List<InstructionInfo> instructions) {
+    public void setInstructions(InstructionList instructions) {
         this.instructions = instructions;
     }
 
-    public void addInstruction(InstructionInfo instruction) {
+    /**
+     * Appends one instruction; {@code symbols} must be the table of the analysis the method
+     * belongs to, so operand ids match the symbol ids of call targets and fields.
+     */
+    public void addInstruction(InstructionInfo instruction, SymbolTable symbols) {
+        if (instructions == null) {
+            instructions = new InstructionList(symbols);
+        }
         this.instructions.add(instruction);
     }
 
@@ -97,13 +117,100 @@ public class MethodInfo {
         this.stringConstants.add(constant);
     }
 
+    // Instantiated types (NEW instructions)
+    public List<String> getInstantiatedTypes() {
+        return instantiatedTypes;
+    }
+
+    public void setInstantiatedTypes(List<String> instantiatedTypes) {
+        this.instantiatedTypes = instantiatedTypes;
+    }
+
+    public void addInstantiatedType(String className) {
+        this.instantiatedTypes.add(className);
+    }
+
+    // Annotations (class names, e.g. org.junit.Test)
+    public List<String> getAnnotations() {
+        return annotations;
+    }
+
+    public void addAnnotation(String annotationClass) {
+        if (annotations.isEmpty()) {
+            annotations = new ArrayList<>(2);
+        }
+        annotations.add(annotationClass);
+    }
+
+    // Lazy body decoding
+    public void setBodyLoader(MethodBodyLoader bodyLoader) {
+        this.bodyLoader = bodyLoader;
+    }
+
+    public synchronized boolean isBodyLoaded() {
+        return bodyLoader == null;
+    }
+
+    /**
+     * Decodes the method body (instructions, string constants, reflection calls, instantiated
+     * types) if it was deferred at parse time. Safe to call repeatedly and from several
+     * threads.
+     */
+    public synchronized void ensureBodyLoaded() {
+        if (bodyLoader != null) {
+            MethodBodyLoader loader = bodyLoader;
+            bodyLoader = null;
+            loader.loadBody(this);
+        }
+    }
+
+    /**
+     * {@link #ensureBodyLoaded()} for a batch of methods: methods deferred by the same loader
+     * (the same class) are decoded together instead of one class pass per method.
+     */
+    public static void ensureBodiesLoaded(Collection<MethodInfo> methods) {
+        Map<MethodBodyLoader, List<MethodInfo>> byLoader = new IdentityHashMap<>();
+        for (MethodInfo method : methods) {
+            MethodBodyLoader loader = method.getPendingBodyLoader();
+            if (loader != null) {
+                byLoader.computeIfAbsent(loader, k -> new ArrayList<>()).add(method);
+            }
+        }
+        for (Map.Entry<MethodBodyLoader, List<MethodInfo>> entry : byLoader.entrySet()) {
+            if (entry.getValue().size() > 1) {
+                entry.getKey().loadBodies(entry.getValue());
+            }
+            for (MethodInfo method : entry.getValue()) {
+                method.ensureBodyLoaded();
+            }
+        }
+    }
+
+    private synchronized MethodBodyLoader getPendingBodyLoader() {
+        return bodyLoader;
+    }
+
     // ── Convenience / Utility Methods ──────────────────────────────────────────
 
     /**
-     * Returns the full JVM-style method identifier (class.method(descriptor))
+     * Returns the full JVM-style method identifier (class.method(descriptor)), built once
      */
     public String getFullName() {
-        return ownerClass + "." + methodName + descriptor;
+        if (fullName == null) {
+            fullName = ownerClass + "." + methodName + descriptor;
+        }
+        return fullName;
+    }
+
+    /**
+     * Id of {@link #getFullName()} in the analysis {@link SymbolTable}, or -1 if unassigned
+     */
+    public int getSymbolId() {
+        return symbolId;
+    }
+
+    public void setSymbolId(int symbolId) {
+        this.symbolId = symbolId;
     }
 
     /**
@@ -7,6 +7,10 @@ public class ReflectionCall {
     private int lineNumber;
     private String reflectionType; // GET_METHOD, INVOKE, FOR_NAME
 
+    // Constant arguments proven by dataflow analysis (null if unknown)
+    private String resolvedClassName;
+    private String resolvedMethodName;
+
     public ReflectionCall(String className, String methodName, String descriptor,
                           String reflectionType) {
         this.className = className;
@@ -23,6 +27,11 @@ public class ReflectionCall {
     public String getReflectionType() { return reflectionType; }
     public void setLineNumber(int lineNumber) { this.lineNumber = lineNumber; }
 
+    public String getResolvedClassName() { return resolvedClassName; }
+    public String getResolvedMethodName() { return resolvedMethodName; }
+    public void setResolvedClassName(String resolvedClassName) { this.resolvedClassName = resolvedClassName; }
+    public void setResolvedMethodName(String resolvedMethodName) { this.resolvedMethodName = resolvedMethodName; }
+
     public String getTargetSignature() {
         return className + "." + methodName + descriptor;
     }
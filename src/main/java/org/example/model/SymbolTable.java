@@ -0,0 +1,139 @@
+package org.example.model;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns the names of one analysis to dense int ids: class names, member names,
+ * descriptors and the composite {@code owner.name(desc)} / {@code owner.name:desc} keys
+ * that identify methods and fields. Each distinct string is stored once, and composite keys
+ * are cached by their parts, so repeated references never rebuild the string.
+ * Safe for concurrent use by parallel class parsing.
+ */
+public class SymbolTable {
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] symbols = new String[256];
+    private int size;
+
+    // Internal name (java/lang/String) -> canonical dotted name
+    private final ConcurrentHashMap<String, String> classNames = new ConcurrentHashMap<>();
+    // (owner, name, descriptor) -> id of the composite method or field key
+    private final ConcurrentHashMap<MemberRef, Integer> memberRefs = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the id of {@code symbol}, assigning the next free id on first use.
+     */
+    public int intern(String symbol) {
+        Integer id = ids.get(symbol);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = ids.get(symbol);
+            if (id != null) {
+                return id;
+            }
+            String[] table = symbols;
+            if (size == table.length) {
+                table = Arrays.copyOf(table, size * 2);
+            }
+            table[size] = symbol;
+            symbols = table;
+            ids.put(symbol, size); // publish the id only after the symbol is stored
+            return size++;
+        }
+    }
+
+    /**
+     * Returns the id of {@code symbol}, or -1 if it was never interned.
+     */
+    public int find(String symbol) {
+        Integer id = ids.get(symbol);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Returns the canonical instance of {@code symbol}, interning it if needed.
+     */
+    public String canonical(String symbol) {
+        return get(intern(symbol));
+    }
+
+    /**
+     * Canonical dotted form of an internal class name, converted once per distinct name.
+     */
+    public String className(String internalName) {
+        String className = classNames.get(internalName);
+        if (className == null) {
+            className = canonical(internalName.replace("/", "."));
+            classNames.putIfAbsent(internalName, className);
+        }
+        return className;
+    }
+
+    /**
+     * Id of the method key {@code owner.name(desc)} with a dotted owner, e.g. the target of
+     * a call instruction. Equal to the id of the callee's {@link MethodInfo#getFullName()}.
+     */
+    public int methodRef(String internalOwner, String name, String descriptor) {
+        return memberRef(new MemberRef(internalOwner, name, descriptor, false));
+    }
+
+    /**
+     * Id of the field key {@code owner.name:desc} with a dotted owner, equal to the id of
+     * the field's {@link FieldInfo#getFullName()}.
+     */
+    public int fieldRef(String internalOwner, String name, String descriptor) {
+        return memberRef(new MemberRef(internalOwner, name, descriptor, true));
+    }
+
+    private int memberRef(MemberRef ref) {
+        Integer id = memberRefs.get(ref);
+        if (id == null) {
+            String key = className(ref.owner) + "." + ref.name + (ref.field ? ":" : "") + ref.descriptor;
+            id = intern(key);
+            memberRefs.putIfAbsent(ref, id);
+        }
+        return id;
+    }
+
+    public String get(int id) {
+        return symbols[id];
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private static final class MemberRef {
+        final String owner;
+        final String name;
+        final String descriptor;
+        final boolean field;
+        final int hash;
+
+        MemberRef(String owner, String name, String descriptor, boolean field) {
+            this.owner = owner;
+            this.name = name;
+            this.descriptor = descriptor;
+            this.field = field;
+            this.hash = 31 * (31 * (31 * owner.hashCode() + name.hashCode()) + descriptor.hashCode())
+                    + (field ? 1 : 0);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof MemberRef)) return false;
+            MemberRef other = (MemberRef) o;
+            return hash == other.hash && field == other.field && owner.equals(other.owner)
+                    && name.equals(other.name) && descriptor.equals(other.descriptor);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
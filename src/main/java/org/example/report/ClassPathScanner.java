@@ -1,13 +1,51 @@
 package org.example.util;
 
+import org.example.model.ArchiveMetadata;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ModuleVisitor;
+import org.objectweb.asm.Opcodes;
+
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.jar.Attributes;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 public class ClassPathScanner {
 
+    private static final String MANIFEST = "META-INF/MANIFEST.MF";
+    private static final String SERVICES = "META-INF/services/";
+    private static final Attributes.Name START_CLASS = new Attributes.Name("Start-Class");
+
+    private final ArchiveMetadata archiveMetadata = new ArchiveMetadata();
+    private long maxDecompressedBytes;
+    private long decompressedBytes;
+
+    /**
+     * Main classes and service providers declared by the scanned archives, collected in the
+     * same pass as their class files. The manifest is only read from the outermost archive;
+     * services and module descriptors are read from nested archives too.
+     */
+    public ArchiveMetadata getArchiveMetadata() {
+        return archiveMetadata;
+    }
+
+    /**
+     * Caps the total size of the class files and metadata entries read from archives
+     * (nested ones included), so a small upload cannot expand without bound. Reading past
+     * the limit fails with an IOException. 0 (the default) means no limit.
+     */
+    public void setMaxDecompressedBytes(long maxDecompressedBytes) {
+        this.maxDecompressedBytes = maxDecompressedBytes;
+    }
+
     public List<byte[]> scanClassFiles(String inputPath) throws IOException {
         List<byte[]> classBytesList = new ArrayList<>();
 
@@ -18,8 +56,8 @@ public class ClassPathScanner {
 
         if (input.isDirectory()) {
             scanDirectory(input, classBytesList);
-        } else if (input.getName().endsWith(".jar")) {
-            scanJarFile(input, classBytesList);
+        } else if (isArchive(input.getName())) {
+            scanJarFile(input, classBytesList::add);
         } else if (input.getName().endsWith(".class")) {
             classBytesList.add(Files.readAllBytes(input.toPath()));
         }
@@ -27,6 +65,37 @@ public class ClassPathScanner {
         return classBytesList;
     }
 
+    /**
+     * Reads class files straight from a stream (e.g. an HTTP upload) without touching the
+     * disk. {@code fileName} selects the format: a single .class file, or a .jar, .zip,
+     * .war or .ear archive whose entries are decoded as they arrive. Archives nested in
+     * the archive (WEB-INF/lib jars, EAR modules) are scanned as well.
+     */
+    public List<byte[]> scanClassFiles(InputStream inputStream, String fileName) throws IOException {
+        List<byte[]> classBytesList = new ArrayList<>();
+        scanClassFiles(inputStream, fileName, classBytesList::add);
+        return classBytesList;
+    }
+
+    /**
+     * Same as {@link #scanClassFiles(InputStream, String)}, but hands each class file to
+     * {@code classFileHandler} as soon as it is decompressed instead of collecting them,
+     * so only one entry is held in memory at a time.
+     */
+    public void scanClassFiles(InputStream inputStream, String fileName, Consumer<byte[]> classFileHandler)
+            throws IOException {
+        if (isArchive(fileName)) {
+            scanZipStream(new ZipInputStream(inputStream), classFileHandler, true);
+        } else if (fileName.endsWith(".class")) {
+            classFileHandler.accept(readAllBytes(inputStream));
+        }
+    }
+
+    private boolean isArchive(String fileName) {
+        return fileName.endsWith(".jar") || fileName.endsWith(".zip")
+                || fileName.endsWith(".war") || fileName.endsWith(".ear");
+    }
+
     private void scanDirectory(File directory, List<byte[]> classBytesList) throws IOException {
         Files.walk(directory.toPath())
                 .filter(path -> path.toString().endsWith(".class"))
@@ -39,7 +108,7 @@ public class ClassPathScanner {
                 });
     }
 
-    private void scanJarFile(File jarFile, List<byte[]> classBytesList) throws IOException {
+    private void scanJarFile(File jarFile, Consumer<byte[]> classFileHandler) throws IOException {
         try (JarFile jar = new JarFile(jarFile)) {
             Enumeration<JarEntry> entries = jar.entries();
 
@@ -48,19 +117,113 @@ public class ClassPathScanner {
                 if (entry.getName().endsWith(".class")) {
                     try (InputStream is = jar.getInputStream(entry)) {
                         byte[] bytes = readAllBytes(is);
-                        classBytesList.add(bytes);
+                        classFileHandler.accept(bytes);
+                        readModuleDescriptor(entry.getName(), bytes);
+                    }
+                } else if (isArchive(entry.getName())) {
+                    try (InputStream is = jar.getInputStream(entry)) {
+                        scanZipStream(new ZipInputStream(is), classFileHandler, false);
+                    }
+                } else if (isMetadata(entry, true)) {
+                    try (InputStream is = jar.getInputStream(entry)) {
+                        readMetadata(entry.getName(), is);
                     }
                 }
             }
         }
     }
 
+    private void scanZipStream(ZipInputStream zip, Consumer<byte[]> classFileHandler, boolean outermost)
+            throws IOException {
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            if (entry.isDirectory()) {
+                continue;
+            }
+            if (entry.getName().endsWith(".class")) {
+                byte[] bytes = readAllBytes(zip);
+                classFileHandler.accept(bytes);
+                readModuleDescriptor(entry.getName(), bytes);
+            } else if (isArchive(entry.getName())) {
+                // Not closed: closing the nested stream would close the enclosing one
+                scanZipStream(new ZipInputStream(zip), classFileHandler, false);
+            } else if (isMetadata(entry, outermost)) {
+                readMetadata(entry.getName(), zip);
+            }
+        }
+    }
+
+    // ── Archive metadata ───────────────────────────────────────────────────────
+
+    private boolean isMetadata(ZipEntry entry, boolean outermost) {
+        String name = entry.getName();
+        if (entry.isDirectory()) {
+            return false;
+        }
+        return (outermost && name.equals(MANIFEST))
+                || (name.startsWith(SERVICES) && name.length() > SERVICES.length());
+    }
+
+    /**
+     * Reads a manifest or service provider file; does not close {@code inputStream}.
+     */
+    private void readMetadata(String entryName, InputStream inputStream) throws IOException {
+        byte[] bytes = readAllBytes(inputStream);
+        if (entryName.equals(MANIFEST)) {
+            Attributes attributes = new Manifest(new ByteArrayInputStream(bytes)).getMainAttributes();
+            addMainClass(attributes.getValue(Attributes.Name.MAIN_CLASS));
+            addMainClass(attributes.getValue(START_CLASS)); // Spring Boot launcher target
+            return;
+        }
+
+        String service = entryName.substring(SERVICES.length());
+        for (String line : new String(bytes, StandardCharsets.UTF_8).split("\\R")) {
+            int comment = line.indexOf('#');
+            String provider = (comment >= 0 ? line.substring(0, comment) : line).trim();
+            if (!provider.isEmpty()) {
+                archiveMetadata.addServiceProvider(service, provider);
+            }
+        }
+    }
+
+    private void addMainClass(String className) {
+        if (className != null && !className.isBlank()) {
+            archiveMetadata.addMainClass(className.trim());
+        }
+    }
+
+    /**
+     * Records the {@code provides} clauses of a {@code module-info.class}.
+     */
+    private void readModuleDescriptor(String entryName, byte[] bytes) {
+        if (!entryName.endsWith("module-info.class")) {
+            return;
+        }
+        new ClassReader(bytes).accept(new ClassVisitor(Opcodes.ASM9) {
+            @Override
+            public ModuleVisitor visitModule(String name, int access, String version) {
+                return new ModuleVisitor(Opcodes.ASM9) {
+                    @Override
+                    public void visitProvide(String service, String... providers) {
+                        for (String provider : providers) {
+                            archiveMetadata.addServiceProvider(service.replace('/', '.'), provider.replace('/', '.'));
+                        }
+                    }
+                };
+            }
+        }, ClassReader.SKIP_CODE);
+    }
+
     private byte[] readAllBytes(InputStream inputStream) throws IOException {
         ByteArrayOutputStream buffer = new ByteArrayOutputStream();
         int nRead;
         byte[] data = new byte[16384];
 
         while ((nRead = inputStream.read(data, 0, data.length)) != -1) {
+            decompressedBytes += nRead;
+            if (maxDecompressedBytes > 0 && decompressedBytes > maxDecompressedBytes) {
+                throw new IOException("Decompressed size exceeds the limit of " + maxDecompressedBytes + " bytes");
+            }
             buffer.write(data, 0, nRead);
         }
 
@@ -26,6 +26,10 @@ public class AccessFlagUtils {
         return (accessFlags & 0x0020) != 0;
     }
 
+    public static boolean isInterface(int accessFlags) {
+        return (accessFlags & 0x0200) != 0;
+    }
+
     public static boolean isAbstract(int accessFlags) {
         return (accessFlags & 0x0400) != 0;
     }
@@ -0,0 +1,138 @@
+package org.example.util;
+
+import java.util.*;
+import java.util.function.IntConsumer;
+
+/**
+ * Aho-Corasick automaton over a fixed set of patterns. {@link #match} reports every
+ * pattern that occurs in a text in a single pass over its characters, independent of the
+ * number of patterns.
+ */
+public class AhoCorasickMatcher {
+
+    private static final int ROOT = 0;
+
+    // Trie transitions per state; missing transitions follow the failure links while matching
+    private final List<Map<Character, Integer>> transitions = new ArrayList<>();
+    private final IntList failure = new IntList();
+    // Nearest state on the failure chain that ends a pattern (-1 = none)
+    private final IntList outputLink = new IntList();
+    // Pattern ending exactly at each state (-1 = none); duplicates share the first id
+    private final IntList patternAt = new IntList();
+
+    private final int[] canonicalPattern;
+
+    public AhoCorasickMatcher(List<String> patterns) {
+        newState();
+        canonicalPattern = new int[patterns.size()];
+
+        for (int id = 0; id < patterns.size(); id++) {
+            int state = ROOT;
+            for (char c : patterns.get(id).toCharArray()) {
+                Integer next = transitions.get(state).get(c);
+                if (next == null) {
+                    next = newState();
+                    transitions.get(state).put(c, next);
+                }
+                state = next;
+            }
+            if (patternAt.get(state) < 0) {
+                patternAt.set(state, id);
+            }
+            canonicalPattern[id] = patternAt.get(state);
+        }
+
+        buildFailureLinks();
+    }
+
+    /**
+     * Calls {@code onMatch} with the id (index in the constructor list) of every pattern
+     * occurrence in {@code text}. A pattern occurring several times is reported several
+     * times; duplicate patterns are reported under the id of their first occurrence.
+     */
+    public void match(String text, IntConsumer onMatch) {
+        int state = ROOT;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            Integer next;
+            while ((next = transitions.get(state).get(c)) == null && state != ROOT) {
+                state = failure.get(state);
+            }
+            state = next != null ? next : ROOT;
+
+            int out = patternAt.get(state) >= 0 ? state : outputLink.get(state);
+            while (out >= 0) {
+                onMatch.accept(patternAt.get(out));
+                out = outputLink.get(out);
+            }
+        }
+    }
+
+    /**
+     * Returns the id under which {@link #match} reports the given pattern.
+     */
+    public int getCanonicalId(int patternId) {
+        return canonicalPattern[patternId];
+    }
+
+    // ── Construction ───────────────────────────────────────────────────────────
+
+    private int newState() {
+        transitions.add(new HashMap<>());
+        failure.add(ROOT);
+        outputLink.add(-1);
+        patternAt.add(-1);
+        return transitions.size() - 1;
+    }
+
+    /**
+     * Breadth-first over the trie: a state's failure link is the longest proper suffix of
+     * its path that is also a trie path.
+     */
+    private void buildFailureLinks() {
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int child : transitions.get(ROOT).values()) {
+            queue.add(child);
+        }
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (Map.Entry<Character, Integer> edge : transitions.get(state).entrySet()) {
+                char c = edge.getKey();
+                int child = edge.getValue();
+
+                int fallback = failure.get(state);
+                Integer target;
+                while ((target = transitions.get(fallback).get(c)) == null && fallback != ROOT) {
+                    fallback = failure.get(fallback);
+                }
+                int childFailure = target != null && target != child ? target : ROOT;
+
+                failure.set(child, childFailure);
+                outputLink.set(child, patternAt.get(childFailure) >= 0
+                        ? childFailure : outputLink.get(childFailure));
+                queue.add(child);
+            }
+        }
+    }
+
+    private static class IntList {
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        void set(int index, int value) {
+            values[index] = value;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+public class ForkJoinUtils {
+
+    /**
+     * Runs {@code task} inside a dedicated fork-join pool with the given parallelism, so
+     * parallel streams and fork-join tasks started from it use that pool instead of the
+     * common one. The pool is shut down before returning.
+     */
+    public static <T> T invoke(int parallelism, Callable<T> task) {
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+        try {
+            return pool.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Parallel analysis interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("Parallel analysis failed", cause);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
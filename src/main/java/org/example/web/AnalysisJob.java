@@ -0,0 +1,78 @@
+package org.example.web;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * State of one asynchronous analysis submitted through {@code POST /api/jobs}.
+ */
+public class AnalysisJob {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private final String id;
+    private final String fileName;
+    private final long submittedAt;
+
+    private volatile Status status;
+    private volatile long startedAt;
+    private volatile long finishedAt;
+    private volatile Map<String, Object> result;
+    private volatile String error;
+
+    public AnalysisJob(String id, String fileName) {
+        this.id = id;
+        this.fileName = fileName;
+        this.submittedAt = System.currentTimeMillis();
+        this.status = Status.QUEUED;
+    }
+
+    // Getters
+    public String getId() { return id; }
+    public String getFileName() { return fileName; }
+    public long getSubmittedAt() { return submittedAt; }
+    public Status getStatus() { return status; }
+    public long getStartedAt() { return startedAt; }
+    public long getFinishedAt() { return finishedAt; }
+    public Map<String, Object> getResult() { return result; }
+    public String getError() { return error; }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    // State transitions (called from the analysis executor)
+    void markRunning() {
+        startedAt = System.currentTimeMillis();
+        status = Status.RUNNING;
+    }
+
+    void markCompleted(Map<String, Object> result) {
+        this.result = result;
+        finishedAt = System.currentTimeMillis();
+        status = Status.COMPLETED;
+    }
+
+    void markFailed(String error) {
+        this.error = error;
+        finishedAt = System.currentTimeMillis();
+        status = Status.FAILED;
+    }
+
+    /**
+     * Status view returned by {@code GET /api/jobs/{id}}.
+     */
+    public Map<String, Object> toStatusMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("jobId", id);
+        map.put("status", status.name());
+        map.put("fileName", fileName);
+        map.put("submittedAt", submittedAt);
+        if (startedAt > 0) map.put("startedAt", startedAt);
+        if (finishedAt > 0) map.put("finishedAt", finishedAt);
+        if (error != null) map.put("error", error);
+        map.put("statusUrl", "/api/jobs/" + id);
+        map.put("resultUrl", "/api/results/" + id);
+        return map;
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.web;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs analyses off the HTTP request threads on a dedicated, bounded executor and keeps
+ * their results until they are fetched (or pushed out by newer jobs).
+ */
+@Service
+public class AnalysisJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisJobService.class);
+
+    private final ThreadPoolExecutor executor;
+    private final int maxRetainedJobs;
+
+    private final Map<String, AnalysisJob> jobs = new ConcurrentHashMap<>();
+    // Job ids in submission order, so the oldest finished jobs are evicted first
+    private final ConcurrentLinkedQueue<String> jobOrder = new ConcurrentLinkedQueue<>();
+
+    public AnalysisJobService(@Value("${analyzer.jobs.threads:2}") int threads,
+                              @Value("${analyzer.jobs.queue-capacity:16}") int queueCapacity,
+                              @Value("${analyzer.jobs.max-retained:100}") int maxRetainedJobs) {
+        this.maxRetainedJobs = maxRetainedJobs;
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "analysis-job-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Queues {@code work} and returns its job immediately.
+     *
+     * @throws RejectedExecutionException if the analysis queue is full
+     */
+    public AnalysisJob submit(String fileName, Callable<Map<String, Object>> work) {
+        AnalysisJob job = new AnalysisJob(UUID.randomUUID().toString(), fileName);
+        jobs.put(job.getId(), job);
+
+        try {
+            executor.execute(() -> {
+                job.markRunning();
+                try {
+                    job.markCompleted(work.call());
+                } catch (Exception e) {
+                    logger.error("Analysis job {} failed", job.getId(), e);
+                    job.markFailed("Analysis failed: " + e.getMessage());
+                } catch (Error e) {
+                    // e.g. OutOfMemoryError on a huge upload: finish the job, then let it propagate
+                    logger.error("Analysis job {} failed", job.getId(), e);
+                    job.markFailed("Analysis failed: " + e);
+                    throw e;
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw e;
+        }
+
+        jobOrder.add(job.getId());
+        evictFinishedJobs();
+        return job;
+    }
+
+    public AnalysisJob getJob(String id) {
+        return jobs.get(id);
+    }
+
+    private void evictFinishedJobs() {
+        Iterator<String> it = jobOrder.iterator();
+        while (jobs.size() > maxRetainedJobs && it.hasNext()) {
+            String id = it.next();
+            AnalysisJob job = jobs.get(id);
+            if (job == null || job.isFinished()) {
+                jobs.remove(id);
+                it.remove();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -1,27 +1,29 @@
 package org.example.web;
 
+import org.example.AnalysisOptions;
 import org.example.Main;
+import org.example.analysis.ReflectionAnalyzer;
+import org.example.graph.CallGraphMode;
 import org.example.report.Report;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.UUID;
-import java.util.stream.Stream;
-
-import javax.tools.JavaCompiler;
-import javax.tools.ToolProvider;
-import java.io.FileWriter;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api")
@@ -29,7 +31,38 @@ import java.io.FileWriter;
 public class ApiController {
 
     private static final Logger logger = LoggerFactory.getLogger(ApiController.class);
-    private static final String UPLOAD_DIR = "uploads/";
+
+    @Value("${analyzer.threads:1}")
+    private int analyzerThreads;
+
+    @Value("${analyzer.cache-dir:}")
+    private String analyzerCacheDir;
+
+    @Value("${analyzer.reflection-mode:heuristic}")
+    private String analyzerReflectionMode;
+
+    @Value("${analyzer.call-graph:exact}")
+    private String analyzerCallGraph;
+
+    @Value("${analyzer.strict-entry-points:false}")
+    private boolean analyzerStrictEntryPoints;
+
+    @Value("${analyzer.live-fields:false}")
+    private boolean analyzerLiveFields;
+
+    @Value("${analyzer.keep-rules:}")
+    private String analyzerKeepRules;
+
+    @Value("${analyzer.max-decompressed-mb:512}")
+    private long analyzerMaxDecompressedMb;
+
+    private final AnalysisJobService jobService;
+    private final InMemoryCompiler compiler;
+
+    public ApiController(AnalysisJobService jobService, InMemoryCompiler compiler) {
+        this.jobService = jobService;
+        this.compiler = compiler;
+    }
 
     /**
      * Health check endpoint
@@ -58,61 +91,119 @@ public class ApiController {
             return ResponseEntity.badRequest().body(response);
         }
 
-        // Check if file is a valid bytecode file
         String originalName = file.getOriginalFilename();
-        if (originalName == null ||
-                (!originalName.endsWith(".class") &&
-                        !originalName.endsWith(".jar") &&
-                        !originalName.endsWith(".zip") &&
-                        !originalName.endsWith(".war") &&
-                        !originalName.endsWith(".ear"))) {
+        if (!isSupportedFile(originalName)) {
             response.put("success", false);
             response.put("error", "File must be a .class, .jar, .zip, .war, or .ear file");
             return ResponseEntity.badRequest().body(response);
         }
 
-        Path uploadDir = Paths.get(UPLOAD_DIR);
-        Path tempDir = null;
+        try (InputStream in = file.getInputStream()) {
+            // Parse each class file as it is decompressed from the upload stream
+            Report report = Main.analyzeClassStream(in, originalName, createAnalysisOptions());
+            response.putAll(createUploadResult(report, originalName, file.getSize()));
 
-        try {
-            // Create upload directory if it doesn't exist
-            Files.createDirectories(uploadDir);
+        } catch (IOException e) {
+            logger.error("File processing failed", e);
+            response.put("success", false);
+            response.put("error", "File processing failed: " + e.getMessage());
+        } catch (Exception e) {
+            logger.error("Analysis failed", e);
+            response.put("success", false);
+            response.put("error", "Analysis failed: " + e.getMessage());
+        }
 
-            // Create a unique temporary directory for this analysis
-            String uniqueId = UUID.randomUUID().toString();
-            tempDir = uploadDir.resolve(uniqueId);
-            Files.createDirectories(tempDir);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Queue an uploaded bytecode file for analysis and return its job ID immediately.
+     * Poll GET /api/jobs/{id} for progress and fetch GET /api/results/{id} for the report.
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<Map<String, Object>> submitJob(
+            @RequestParam("file") MultipartFile file) {
+
+        Map<String, Object> response = new HashMap<>();
+
+        if (file.isEmpty()) {
+            response.put("success", false);
+            response.put("error", "No file uploaded");
+            return ResponseEntity.badRequest().body(response);
+        }
 
-            // Save the uploaded file
-            String safeFilename = originalName.replaceAll("[^a-zA-Z0-9.-]", "_");
-            Path uploadedFile = tempDir.resolve(safeFilename);
-            Files.copy(file.getInputStream(), uploadedFile, StandardCopyOption.REPLACE_EXISTING);
+        String originalName = file.getOriginalFilename();
+        if (!isSupportedFile(originalName)) {
+            response.put("success", false);
+            response.put("error", "File must be a .class, .jar, .zip, .war, or .ear file");
+            return ResponseEntity.badRequest().body(response);
+        }
 
-            // Perform bytecode analysis
-            Report report = Main.analyzeAndGetReport(uploadedFile.toString());
+        Path upload = null;
+        try {
+            // The multipart part is only valid during this request, so copy it to a temp file
+            // that the worker parses (and deletes); queued jobs hold no class bytes in memory
+            upload = Files.createTempFile("analysis-upload-", ".tmp");
+            try (InputStream in = file.getInputStream()) {
+                Files.copy(in, upload, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Path queuedUpload = upload;
+            long fileSize = file.getSize();
+            AnalysisOptions options = createAnalysisOptions();
+
+            AnalysisJob job = jobService.submit(originalName, () -> analyzeQueuedUpload(
+                    queuedUpload, originalName, fileSize, options));
 
             response.put("success", true);
-            response.put("message", "Bytecode file analyzed successfully");
-            response.put("originalFilename", originalName);
-            response.put("fileSize", file.getSize());
-            response.put("fileType", getFileType(originalName));
-            response.put("report", convertReportToMap(report));
-            response.put("summary", createSummary(report));
+            response.putAll(job.toStatusMap());
+            return ResponseEntity.accepted().body(response);
 
+        } catch (RejectedExecutionException e) {
+            deleteQuietly(upload);
+            response.put("success", false);
+            response.put("error", "Analysis queue is full. Please try again later.");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
         } catch (IOException e) {
+            deleteQuietly(upload);
             logger.error("File processing failed", e);
             response.put("success", false);
             response.put("error", "File processing failed: " + e.getMessage());
-        } catch (Exception e) {
-            logger.error("Analysis failed", e);
-            response.put("success", false);
-            response.put("error", "Analysis failed: " + e.getMessage());
-        } finally {
-            // Clean up temporary files
-            cleanupTempFiles(tempDir);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
+    }
 
-        return ResponseEntity.ok(response);
+    /**
+     * Status of a queued or running analysis job
+     */
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<Map<String, Object>> getJobStatus(@PathVariable String id) {
+        AnalysisJob job = jobService.getJob(id);
+        if (job == null) {
+            return jobNotFound(id);
+        }
+        return ResponseEntity.ok(job.toStatusMap());
+    }
+
+    /**
+     * Report of a finished analysis job. Returns 202 while the job is still pending.
+     */
+    @GetMapping("/results/{id}")
+    public ResponseEntity<Map<String, Object>> getJobResult(@PathVariable String id) {
+        AnalysisJob job = jobService.getJob(id);
+        if (job == null) {
+            return jobNotFound(id);
+        }
+
+        switch (job.getStatus()) {
+            case COMPLETED:
+                return ResponseEntity.ok(job.getResult());
+            case FAILED:
+                Map<String, Object> failed = job.toStatusMap();
+                failed.put("success", false);
+                return ResponseEntity.ok(failed);
+            default:
+                return ResponseEntity.accepted().body(job.toStatusMap());
+        }
     }
 
     /**
@@ -140,40 +231,24 @@ public class ApiController {
             return ResponseEntity.badRequest().body(response);
         }
 
-        Path tempDir = null;
-        Path sourceFile = null;
+        if (!compiler.isAvailable()) {
+            response.put("success", false);
+            response.put("error", "Java compiler not available. Ensure JDK (not JRE) is installed.");
+            return ResponseEntity.status(500).body(response);
+        }
 
         try {
-            // Create temporary directory for compilation
-            tempDir = Files.createTempDirectory("java-compile-");
-            sourceFile = tempDir.resolve(className + ".java");
-
-            // Write source code to file
-            try (FileWriter writer = new FileWriter(sourceFile.toFile())) {
-                writer.write(code);
-            }
+            // Compile in memory and analyze the resulting class files directly
+            InMemoryCompiler.CompilationResult compilation = compiler.compile(className, code);
 
-            // Compile Java source code
-            JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-            if (compiler == null) {
+            if (!compilation.isSuccess()) {
                 response.put("success", false);
-                response.put("error", "Java compiler not available. Ensure JDK (not JRE) is installed.");
-                return ResponseEntity.status(500).body(response);
-            }
-
-            int compilationResult = compiler.run(
-                    null, null, null,
-                    sourceFile.toString()
-            );
-
-            if (compilationResult != 0) {
-                response.put("success", false);
-                response.put("error", "Compilation failed. Please check your Java syntax.");
+                response.put("error", "Compilation failed: " + String.join("; ", compilation.getErrors()));
+                response.put("diagnostics", compilation.getErrors());
                 return ResponseEntity.badRequest().body(response);
             }
 
-            // Analyze the compiled bytecode
-            Report report = Main.analyzeAndGetReport(tempDir.toString());
+            Report report = Main.analyzeClassBytes(compilation.getClassFiles(), createAnalysisOptions());
 
             response.put("success", true);
             response.put("message", "Code compiled and analyzed successfully");
@@ -188,9 +263,6 @@ public class ApiController {
             logger.error("Analysis failed", e);
             response.put("success", false);
             response.put("error", "Analysis failed: " + e.getMessage());
-        } finally {
-            // Clean up temporary files
-            cleanupTempFiles(tempDir);
         }
 
         return ResponseEntity.ok(response);
@@ -221,7 +293,10 @@ public class ApiController {
                 "GET /api/info - API information",
                 "GET /api/test - Test endpoint",
                 "POST /api/analyze/upload - Upload and analyze bytecode file",
-                "POST /api/analyze/code - Compile and analyze Java source code"
+                "POST /api/analyze/code - Compile and analyze Java source code",
+                "POST /api/jobs - Queue a bytecode file for analysis, returns a job ID",
+                "GET /api/jobs/{id} - Analysis job status",
+                "GET /api/results/{id} - Report of a finished analysis job"
         ));
         
         info.put("supportedFileTypes", List.of(".class", ".jar", ".zip", ".war", ".ear"));
@@ -239,22 +314,65 @@ public class ApiController {
         return "Unknown";
     }
 
-    private void cleanupTempFiles(Path tempDir) {
-        if (tempDir != null && Files.exists(tempDir)) {
-            try (Stream<Path> paths = Files.walk(tempDir)) {
-                // Delete all files in the directory
-                paths.sorted((a, b) -> -a.compareTo(b)) // reverse for directory-first deletion
-                        .forEach(path -> {
-                            try {
-                                Files.delete(path);
-                            } catch (IOException e) {
-                                logger.warn("Failed to delete: {}", path, e);
-                            }
-                        });
-            } catch (IOException e) {
-                logger.error("Failed to cleanup temp directory", e);
-            }
+    private boolean isSupportedFile(String filename) {
+        return filename != null &&
+                (filename.endsWith(".class") ||
+                        filename.endsWith(".jar") ||
+                        filename.endsWith(".zip") ||
+                        filename.endsWith(".war") ||
+                        filename.endsWith(".ear"));
+    }
+
+    private Map<String, Object> createUploadResult(Report report, String originalName, long fileSize) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("message", "Bytecode file analyzed successfully");
+        result.put("originalFilename", originalName);
+        result.put("fileSize", fileSize);
+        result.put("fileType", getFileType(originalName));
+        result.put("report", convertReportToMap(report));
+        result.put("summary", createSummary(report));
+        return result;
+    }
+
+    private ResponseEntity<Map<String, Object>> jobNotFound(String id) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("error", "Unknown job: " + id);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+    }
+
+    private Map<String, Object> analyzeQueuedUpload(Path upload, String fileName, long fileSize,
+                                                    AnalysisOptions options) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(upload))) {
+            return createUploadResult(Main.analyzeClassStream(in, fileName, options), fileName, fileSize);
+        } finally {
+            deleteQuietly(upload);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
         }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete upload file {}", file, e);
+        }
+    }
+
+    private AnalysisOptions createAnalysisOptions() {
+        AnalysisOptions options = new AnalysisOptions();
+        options.setThreads(analyzerThreads);
+        options.setCacheDir(analyzerCacheDir);
+        options.setReflectionMode(ReflectionAnalyzer.Mode.valueOf(analyzerReflectionMode.toUpperCase(Locale.ROOT)));
+        options.setCallGraphMode(CallGraphMode.valueOf(analyzerCallGraph.toUpperCase(Locale.ROOT)));
+        options.setStrictEntryPoints(analyzerStrictEntryPoints);
+        options.setLiveFields(analyzerLiveFields);
+        options.setKeepRulesFile(analyzerKeepRules);
+        options.setMaxDecompressedBytes(analyzerMaxDecompressedMb * 1024L * 1024L);
+        return options;
     }
 
     private Map<String, Object> convertReportToMap(Report report) {
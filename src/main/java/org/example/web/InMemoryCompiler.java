@@ -0,0 +1,155 @@
+package org.example.web;
+
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.tools.*;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compiles editor sources entirely in memory. The system compiler and its standard file
+ * manager are created once and reused, so only the first request pays for loading javac;
+ * sources are read from strings and class files are captured as byte arrays that go
+ * straight into the analysis pipeline.
+ */
+@Component
+public class InMemoryCompiler {
+
+    private static final List<String> OPTIONS = List.of("-proc:none");
+
+    private final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    private final StandardJavaFileManager standardFileManager =
+            compiler != null ? compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8) : null;
+
+    public boolean isAvailable() {
+        return compiler != null;
+    }
+
+    /**
+     * Compiles a trivial class at startup so the first editor request does not pay for
+     * class loading and JIT warm-up of javac.
+     */
+    @PostConstruct
+    public void warmUp() {
+        if (isAvailable()) {
+            compile("Warmup", "class Warmup { int run() { return 1; } }");
+        }
+    }
+
+    /**
+     * Compiles {@code source} as compilation unit {@code className}. The file manager is
+     * shared, so compilations are serialized.
+     */
+    public synchronized CompilationResult compile(String className, String source) {
+        if (!isAvailable()) {
+            throw new IllegalStateException("Java compiler not available");
+        }
+
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        CapturingFileManager fileManager = new CapturingFileManager(standardFileManager);
+        List<JavaFileObject> units = List.of(new StringSource(className, source));
+
+        boolean success = compiler.getTask(null, fileManager, diagnostics, OPTIONS, null, units).call();
+
+        List<String> messages = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                messages.add("Line " + diagnostic.getLineNumber() + ": " + diagnostic.getMessage(null));
+            }
+        }
+
+        List<byte[]> classes = new ArrayList<>();
+        if (success) {
+            for (ByteArrayClass output : fileManager.outputs) {
+                classes.add(output.getBytes());
+            }
+        }
+        return new CompilationResult(success, classes, messages);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (standardFileManager != null) {
+            standardFileManager.close();
+        }
+    }
+
+    // ── Result ─────────────────────────────────────────────────────────────────
+
+    public static class CompilationResult {
+        private final boolean success;
+        private final List<byte[]> classFiles;
+        private final List<String> errors;
+
+        CompilationResult(boolean success, List<byte[]> classFiles, List<String> errors) {
+            this.success = success;
+            this.classFiles = classFiles;
+            this.errors = errors;
+        }
+
+        public boolean isSuccess() { return success; }
+        public List<byte[]> getClassFiles() { return classFiles; }
+        public List<String> getErrors() { return errors; }
+    }
+
+    // ── In-memory file objects ─────────────────────────────────────────────────
+
+    private static class StringSource extends SimpleJavaFileObject {
+        private final String source;
+
+        StringSource(String className, String source) {
+            super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.source = source;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return source;
+        }
+    }
+
+    private static class ByteArrayClass extends SimpleJavaFileObject {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        ByteArrayClass(String className) {
+            super(URI.create("bytes:///" + className.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
+        }
+
+        @Override
+        public OutputStream openOutputStream() {
+            return bytes;
+        }
+
+        byte[] getBytes() {
+            return bytes.toByteArray();
+        }
+    }
+
+    /**
+     * Sends class output to memory and everything else (platform classes, class path
+     * lookups) to the shared standard file manager. Never closed: that would close the
+     * shared manager.
+     */
+    private static class CapturingFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+        final List<ByteArrayClass> outputs = new ArrayList<>();
+
+        CapturingFileManager(StandardJavaFileManager fileManager) {
+            super(fileManager);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className,
+                                                   JavaFileObject.Kind kind, FileObject sibling) {
+            ByteArrayClass output = new ByteArrayClass(className);
+            outputs.add(output);
+            return output;
+        }
+    }
+}
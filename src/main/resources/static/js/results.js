@@ -32,10 +32,17 @@ async function loadResults() {
         }
 
         if (reportId) {
-            // Try to fetch from API (if you implement a results endpoint)
-            const response = await fetch(`/api/results/${reportId}`);
+            // Fetch from the job results endpoint, waiting while the job is still pending
+            let response = await fetch(`/api/results/${reportId}`);
+            while (response.status === 202) {
+                await new Promise(resolve => setTimeout(resolve, 1000));
+                response = await fetch(`/api/results/${reportId}`);
+            }
             if (response.ok) {
                 const data = await response.json();
+                if (data.success === false) {
+                    throw new Error(data.error || 'Analysis failed.');
+                }
                 currentReport = data.report || {};
                 currentSummary = data.summary || {};
                 displayResults();
@@ -121,12 +121,19 @@ async function analyzeFiles() {
     formData.append('includeDeadBlocks', document.getElementById('checkDeadBlocks').checked);
 
     try {
-        const response = await fetch('/api/analyze/upload', {
+        // Queue the analysis, then poll until the job has finished
+        const response = await fetch('/api/jobs', {
             method: 'POST',
             body: formData
         });
 
-        const result = await response.json();
+        const job = await response.json();
+        if (!job.success) {
+            showError(job.error || 'Analysis failed. Please try again.');
+            return;
+        }
+
+        const result = await waitForJobResult(job.resultUrl);
 
         if (result.success) {
             displayResults(result);
@@ -144,6 +151,17 @@ async function analyzeFiles() {
     }
 }
 
+// Poll a job's result URL until the analysis has completed or failed
+async function waitForJobResult(resultUrl) {
+    while (true) {
+        const response = await fetch(resultUrl);
+        if (response.status !== 202) {
+            return await response.json();
+        }
+        await new Promise(resolve => setTimeout(resolve, 1000));
+    }
+}
+
 // Display results
 function displayResults(data) {
     const container = document.getElementById('resultsContainer');